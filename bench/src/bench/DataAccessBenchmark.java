@@ -0,0 +1,252 @@
+package bench;
+
+import db.AssignmentDao;
+import db.DBConnection;
+import db.DatabaseConfig;
+import db.LibraryDao;
+import db.RoutineDao;
+import db.RoutineEntry;
+import db.RoutineSeries;
+import db.SyntheticDataGenerator;
+import db.SyntheticDataGenerator.Options;
+import db.UserDao;
+import db.UserFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Benchmarks the data-access paths behind SignInForm, UserListView, Dashboard and
+// RoutineTrackerListView against the configured backend (embedded H2 unless
+// -Dportal.db.backend says otherwise), which must start out empty. The data set grows
+// through each --students size in turn, filled by SyntheticDataGenerator with --days
+// of history per student.
+//
+//   java -Xmx4g -cp out:bench-out:h2.jar bench.DataAccessBenchmark \
+//        --students=1000,10000,100000 --days=30 --threads=1 --warmup=3 --iterations=5 --time=1000 \
+//        --filter=dashboard.* --csv=bench.csv
+//
+// Compare pooling/caching choices by re-running with e.g. -Dportal.db.statementCacheSize=0;
+// *.unpooled and *.batch100 paths show the pool and JDBC batching directly.
+public final class DataAccessBenchmark {
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_RESULTS = 1000;
+    private static final String[] NAME_PREFIXES = {"Am", "Ra", "Na", "Ta", "Sa", "Im", "Fa", "Ka", "La", "Ha"};
+    private static final String SELECT_CREDENTIALS =
+            "SELECT id, name, email, profile_picture, password FROM users WHERE username = ?";
+    private static final String INSERT_LOG =
+            "INSERT INTO routine_logs (user_id, task, short_term_goal, long_term_goal, reflection, log_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final UserDao users = new UserDao();
+    private final RoutineDao routines = new RoutineDao();
+    private final AssignmentDao assignments = new AssignmentDao();
+    private final LibraryDao library = new LibraryDao();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        // Must be set before DBConnection loads
+        if (System.getProperty("portal.db.backend") == null) {
+            System.setProperty("portal.db.backend", DatabaseConfig.H2);
+        }
+        if (System.getProperty("portal.db.slowQueryMillis") == null) {
+            System.setProperty("portal.db.slowQueryMillis", "60000");
+        }
+
+        List<Integer> sizes = new ArrayList<>();
+        for (String size : options.getOrDefault("students", "1000,10000,100000").split(",")) {
+            sizes.add(Integer.parseInt(size.trim()));
+        }
+        int days = Integer.parseInt(options.getOrDefault("days", "30"));
+        // Fixed for the whole run so every size sees the same calendar
+        LocalDate endDate = LocalDate.now();
+        Harness harness = new Harness(
+                Integer.parseInt(options.getOrDefault("threads", "1")),
+                Integer.parseInt(options.getOrDefault("warmup", "3")),
+                Integer.parseInt(options.getOrDefault("iterations", "5")),
+                Long.parseLong(options.getOrDefault("time", "1000")));
+        Pattern filter = Pattern.compile(options.getOrDefault("filter", ".*"));
+
+        System.out.println("Backend: " + DBConnection.getConfig());
+        DataAccessBenchmark benchmark = new DataAccessBenchmark();
+        List<Harness.Result> results = new ArrayList<>();
+        for (int students : sizes) {
+            int existing = (int) count("users");
+            if (students > existing) {
+                // Students are appended, so each size keeps the previous one's rows unchanged
+                Options defaults = Options.defaults(existing, students - existing);
+                SyntheticDataGenerator.Report report = SyntheticDataGenerator.generate(new Options(
+                        defaults.seed(), existing, students - existing, days, endDate,
+                        (int) Math.max(0, students / 10 - count("library")), existing == 0 ? defaults.notices() : 0,
+                        defaults.threads(), defaults.batchSize()));
+                System.out.printf("%nSeeded %,d students:%n%s%n", students, report);
+            }
+            printHeader();
+            for (Map.Entry<String, Harness.Op> path : benchmark.paths(students).entrySet()) {
+                if (!filter.matcher(path.getKey()).matches()) continue;
+                Harness.Result result = harness.run(path.getKey(), students, path.getValue());
+                print(result);
+                results.add(result);
+            }
+        }
+
+        String csv = options.get("csv");
+        if (csv != null) writeCsv(csv, results);
+    }
+
+    // Generated students on an empty database have ids 1..students
+    private Map<String, Harness.Op> paths(int students) throws SQLException {
+        long assignmentRows = count("assignments");
+        DatabaseConfig config = DBConnection.getConfig();
+        Map<String, Harness.Op> paths = new LinkedHashMap<>();
+
+        // SignInForm: credential lookup by username (the BCrypt verify is excluded)
+        paths.put("signIn.findCredentials", random ->
+                users.findCredentials(SyntheticDataGenerator.username(random.nextInt(students))));
+        paths.put("signIn.findCredentials.unpooled", random -> {
+            try (Connection conn = DriverManager.getConnection(config.url(), config.user(), config.password());
+                 PreparedStatement stmt = conn.prepareStatement(SELECT_CREDENTIALS)) {
+                stmt.setString(1, SyntheticDataGenerator.username(random.nextInt(students)));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getString(5) : null;
+                }
+            }
+        });
+
+        // UserListView: row count plus first page, a jump-scroll, and a name search
+        paths.put("userList.firstPage", random -> {
+            users.count(UserFilter.NONE, MAX_SEARCH_RESULTS);
+            return users.findPage(0, PAGE_SIZE, UserFilter.NONE);
+        });
+        paths.put("userList.jumpToPage", random -> {
+            int pages = Math.max(1, students / PAGE_SIZE);
+            int offset = random.nextInt(pages) * PAGE_SIZE;
+            int afterId = offset == 0 ? 0 : users.findIdAfter(0, offset - 1, UserFilter.NONE).orElse(0);
+            return users.findPage(afterId, PAGE_SIZE, UserFilter.NONE);
+        });
+        paths.put("userList.searchByName", random -> {
+            UserFilter filter = new UserFilter(NAME_PREFIXES[random.nextInt(NAME_PREFIXES.length)],
+                    null, null, null, null);
+            users.count(filter, MAX_SEARCH_RESULTS);
+            return users.findPage(0, PAGE_SIZE, filter);
+        });
+
+        // Dashboard tabs and the submitted checkbox. The tracking tab has no query of its
+        // own: it slices RoutineCache, whose first load is routineList.load below.
+        paths.put("dashboard.assignments", random ->
+                assignments.findByUser(random.nextInt(students) + 1));
+        paths.put("dashboard.library", random -> library.findAll());
+        paths.put("dashboard.heatmap", random ->
+                routines.findDailyTotals(random.nextInt(students) + 1, LocalDate.now().minusDays(364), LocalDate.now()));
+        paths.put("dashboard.toggleSubmitted", random ->
+                assignments.setSubmitted(Map.of((int) (random.nextLong(assignmentRows) + 1), random.nextBoolean())));
+        // A write-behind flush of several coalesced clicks
+        paths.put("dashboard.toggleSubmitted.batch10", random -> {
+            Map<Integer, Boolean> changes = new LinkedHashMap<>();
+            while (changes.size() < 10) {
+                changes.put((int) (random.nextLong(assignmentRows) + 1), random.nextBoolean());
+            }
+            return assignments.setSubmitted(changes);
+        });
+
+        // RoutineTrackerListView: the full history; Edit reads the loaded rows and needs no query
+        paths.put("routineList.load", random ->
+                routines.findByUser(random.nextInt(students) + 1));
+        // The tracking tab and the routine list served from a warm RoutineSeries, as RoutineCache does after the first load
+        RoutineSeries warm = new RoutineSeries(1, routines.findByUser(1));
+        paths.put("dashboard.tracking.cached", random ->
+                new ArrayList<>(warm.slice(LocalDate.now().minusDays(30), LocalDate.now())));
+        paths.put("routineList.load.cached", random -> new ArrayList<>(warm.all()));
+
+        // RoutineBackfillForm: a week of routine_tracker rows as one batched upsert
+        paths.put("write.routine.backfill7", random -> {
+            int userId = random.nextInt(students) + 1;
+            LocalDate end = LocalDate.now().minusDays(random.nextInt(60));
+            List<RoutineEntry> week = new ArrayList<>();
+            for (int d = 6; d >= 0; d--) {
+                week.add(new RoutineEntry(0, userId, end.minusDays(d), 1, 0.5f, 1, 0.5f, 0, 0.5f, "Backfilled"));
+            }
+            return routines.upsert(userId, week);
+        });
+
+        // RoutineTrackerPanel writes: one row per round trip vs one batched transaction of 100
+        paths.put("write.routineLog.single", random ->
+                routines.insertLog(random.nextInt(students) + 1, "Read", "Finish chapter",
+                        "Graduate", "Good day", LocalDate.now()));
+        paths.put("write.routineLog.batch100", random -> {
+            try (Connection conn = DBConnection.getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement stmt = conn.prepareStatement(INSERT_LOG)) {
+                    for (int i = 0; i < 100; i++) {
+                        stmt.setInt(1, random.nextInt(students) + 1);
+                        stmt.setString(2, "Read");
+                        stmt.setString(3, "Finish chapter");
+                        stmt.setString(4, "Graduate");
+                        stmt.setString(5, "Good day");
+                        stmt.setDate(6, Date.valueOf(LocalDate.now()));
+                        stmt.addBatch();
+                    }
+                    int[] counts = stmt.executeBatch();
+                    conn.commit();
+                    return counts;
+                }
+            }
+        });
+        return paths;
+    }
+
+    private static void printHeader() {
+        System.out.printf("%-34s %10s %8s %12s %10s %10s %10s%n",
+                "path", "students", "threads", "ops/s", "p50 us", "p99 us", "max us");
+    }
+
+    private static void print(Harness.Result r) {
+        System.out.printf("%-34s %,10d %8d %,12.1f %,10.1f %,10.1f %,10.1f%n", r.name(), r.students(), r.threads(),
+                r.opsPerSecond(), r.p50Nanos() / 1e3, r.p99Nanos() / 1e3, r.maxNanos() / 1e3);
+    }
+
+    private static void writeCsv(String file, List<Harness.Result> results) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(file)))) {
+            out.println("path,students,threads,ops,ops_per_second,p50_ns,p99_ns,max_ns");
+            for (Harness.Result r : results) {
+                out.printf("%s,%d,%d,%d,%.2f,%d,%d,%d%n", r.name(), r.students(), r.threads(), r.ops(),
+                        r.opsPerSecond(), r.p50Nanos(), r.p99Nanos(), r.maxNanos());
+            }
+        }
+    }
+
+    private static long count(String table) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    // --key=value pairs
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,95 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Minimal throughput/latency runner in the spirit of JMH's SampleTime mode: each
+// benchmark runs warmup iterations (discarded) and then measurement iterations of a
+// fixed duration on N threads, timing every call. Only the measured calls count.
+final class Harness {
+
+    @FunctionalInterface
+    interface Op {
+        // Returns something derived from the work so the JIT cannot drop it
+        Object run(ThreadLocalRandom random) throws Exception;
+    }
+
+    record Result(String name, int students, int threads, long ops, double opsPerSecond,
+                  long p50Nanos, long p99Nanos, long maxNanos) {}
+
+    private final int threads;
+    private final int warmupIterations;
+    private final int measureIterations;
+    private final long iterationMillis;
+
+    // Consumed results end up here so the work stays observable
+    static volatile Object sink;
+
+    Harness(int threads, int warmupIterations, int measureIterations, long iterationMillis) {
+        this.threads = threads;
+        this.warmupIterations = warmupIterations;
+        this.measureIterations = measureIterations;
+        this.iterationMillis = iterationMillis;
+    }
+
+    Result run(String name, int students, Op op) throws InterruptedException {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(op);
+        }
+        LatencyHistogram all = new LatencyHistogram();
+        long elapsedNanos = 0;
+        for (int i = 0; i < measureIterations; i++) {
+            long start = System.nanoTime();
+            all.add(iteration(op));
+            elapsedNanos += System.nanoTime() - start;
+        }
+        double seconds = elapsedNanos / 1e9;
+        return new Result(name, students, threads, all.count(), all.count() / seconds,
+                all.percentile(0.50), all.percentile(0.99), all.max());
+    }
+
+    private LatencyHistogram iteration(Op op) throws InterruptedException {
+        List<LatencyHistogram> perThread = new ArrayList<>(threads);
+        List<Throwable> failures = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(iterationMillis);
+
+        for (int t = 0; t < threads; t++) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            perThread.add(histogram);
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                    Object last = null;
+                    while (System.nanoTime() < deadline) {
+                        long begin = System.nanoTime();
+                        last = op.run(random);
+                        histogram.record(System.nanoTime() - begin);
+                    }
+                    sink = last;
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "bench-" + t);
+            worker.start();
+        }
+        start.countDown();
+        done.await();
+
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Benchmark operation failed", failures.get(0));
+        }
+        LatencyHistogram merged = new LatencyHistogram();
+        perThread.forEach(merged::add);
+        return merged;
+    }
+}
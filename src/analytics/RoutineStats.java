@@ -0,0 +1,223 @@
+package analytics;
+
+import db.RoutineEntry;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Rolling averages, streaks and week-over-week totals for one user's routine_tracker
+// history, kept up to date entry by entry instead of rescanning the history.
+//
+// Each averaging window keeps a running sum per activity. An added, edited or removed
+// entry adjusts the sums of the windows its day falls in. The windows move only when
+// the date changes, and then are summed again from the per-day map (134 lookups).
+// Streaks are the runs of consecutive days with hours, per activity, held in a TreeMap
+// from first to last day. Changing one day merges or splits at most two runs, and a
+// count of runs by length gives the longest. summary() reuses its last result until
+// something changes. Not thread-safe.
+public class RoutineStats {
+    private static final int ACTIVITIES = RoutineEntry.ACTIVITIES;
+    private static final int WEEK = 7;
+
+    // One window ends offset days before today and spans length days
+    private static final int[] WINDOW_LENGTHS;
+    private static final int[] WINDOW_OFFSETS;
+    private static final int PREVIOUS_WEEK;
+
+    static {
+        int averages = RoutineSummary.AVERAGE_WINDOWS.length;
+        WINDOW_LENGTHS = Arrays.copyOf(RoutineSummary.AVERAGE_WINDOWS, averages + 1);
+        WINDOW_OFFSETS = new int[averages + 1];
+        PREVIOUS_WEEK = averages;
+        WINDOW_LENGTHS[PREVIOUS_WEEK] = WEEK;
+        WINDOW_OFFSETS[PREVIOUS_WEEK] = WEEK;
+    }
+
+    private record Day(int id, int epochDay, float[] hours) {}
+
+    private final Map<Integer, Day> byId = new HashMap<>();
+    private final Map<Integer, Day> byDay = new HashMap<>();
+    // [window][activity]; valid for anchor
+    private final double[][] sums = new double[WINDOW_LENGTHS.length][ACTIVITIES];
+    private final TreeMap<Integer, Integer>[] runs = newMaps();
+    // Run length -> number of runs of that length, per activity
+    private final TreeMap<Integer, Integer>[] runLengths = newMaps();
+    // Epoch day the window sums end at; none until the first summary
+    private long anchor = Long.MIN_VALUE;
+    private RoutineSummary summary;
+
+    // Replaces everything held with history
+    public void load(List<RoutineEntry> history) {
+        byId.clear();
+        byDay.clear();
+        for (TreeMap<Integer, Integer> map : runs) map.clear();
+        for (TreeMap<Integer, Integer> map : runLengths) map.clear();
+        anchor = Long.MIN_VALUE;
+        summary = null;
+        for (RoutineEntry entry : history) {
+            put(entry);
+        }
+    }
+
+    // Adds an entry, or replaces the one with its id or its date
+    public void put(RoutineEntry entry) {
+        remove(entry.id());
+        Day sameDay = byDay.get((int) entry.date().toEpochDay());
+        if (sameDay != null) remove(sameDay.id());
+
+        float[] hours = new float[ACTIVITIES];
+        for (int a = 0; a < ACTIVITIES; a++) {
+            hours[a] = entry.hours(a);
+        }
+        add(new Day(entry.id(), (int) entry.date().toEpochDay(), hours));
+    }
+
+    // New hours for an entry already held, in RoutineEntry.hours order; unknown ids are ignored
+    public void update(int id, float[] hours) {
+        Day old = byId.get(id);
+        if (old == null) return;
+        remove(id);
+        add(new Day(id, old.epochDay(), Arrays.copyOf(hours, ACTIVITIES)));
+    }
+
+    public void remove(int id) {
+        Day day = byId.remove(id);
+        if (day == null) return;
+        byDay.remove(day.epochDay());
+        for (int a = 0; a < ACTIVITIES; a++) {
+            if (day.hours()[a] > 0) {
+                shorten(a, day.epochDay());
+                addToWindows(day.epochDay(), a, -day.hours()[a]);
+            }
+        }
+        summary = null;
+    }
+
+    // Figures as of today; cheap when nothing changed since the last call
+    public RoutineSummary summary(LocalDate today) {
+        if (today.toEpochDay() != anchor) {
+            anchor = today.toEpochDay();
+            resum();
+            summary = null;
+        }
+        if (summary == null) summary = build(today);
+        return summary;
+    }
+
+    private void add(Day day) {
+        byId.put(day.id(), day);
+        byDay.put(day.epochDay(), day);
+        for (int a = 0; a < ACTIVITIES; a++) {
+            if (day.hours()[a] > 0) {
+                extend(a, day.epochDay());
+                addToWindows(day.epochDay(), a, day.hours()[a]);
+            }
+        }
+        summary = null;
+    }
+
+    private void addToWindows(int epochDay, int activity, double hours) {
+        if (anchor == Long.MIN_VALUE) return;
+        for (int w = 0; w < WINDOW_LENGTHS.length; w++) {
+            long end = anchor - WINDOW_OFFSETS[w];
+            if (epochDay <= end && epochDay > end - WINDOW_LENGTHS[w]) {
+                sums[w][activity] += hours;
+            }
+        }
+    }
+
+    private void resum() {
+        for (int w = 0; w < WINDOW_LENGTHS.length; w++) {
+            Arrays.fill(sums[w], 0);
+            long end = anchor - WINDOW_OFFSETS[w];
+            for (long epochDay = end - WINDOW_LENGTHS[w] + 1; epochDay <= end; epochDay++) {
+                Day day = byDay.get((int) epochDay);
+                if (day == null) continue;
+                for (int a = 0; a < ACTIVITIES; a++) {
+                    sums[w][a] += day.hours()[a];
+                }
+            }
+        }
+    }
+
+    // epochDay gained hours for activity: joins the runs ending just before and starting just after it
+    private void extend(int activity, int epochDay) {
+        TreeMap<Integer, Integer> map = runs[activity];
+        int start = epochDay;
+        int end = epochDay;
+        Map.Entry<Integer, Integer> before = map.floorEntry(epochDay - 1);
+        if (before != null && before.getValue() == epochDay - 1) {
+            start = before.getKey();
+            countRun(activity, before.getKey(), before.getValue(), -1);
+        }
+        Integer after = map.remove(epochDay + 1);
+        if (after != null) {
+            end = after;
+            countRun(activity, epochDay + 1, after, -1);
+        }
+        map.put(start, end);
+        countRun(activity, start, end, 1);
+    }
+
+    // epochDay lost its hours for activity: splits the run around it
+    private void shorten(int activity, int epochDay) {
+        TreeMap<Integer, Integer> map = runs[activity];
+        Map.Entry<Integer, Integer> run = map.floorEntry(epochDay);
+        if (run == null || run.getValue() < epochDay) return;
+        int start = run.getKey();
+        int end = run.getValue();
+        map.remove(start);
+        countRun(activity, start, end, -1);
+        if (start < epochDay) {
+            map.put(start, epochDay - 1);
+            countRun(activity, start, epochDay - 1, 1);
+        }
+        if (epochDay < end) {
+            map.put(epochDay + 1, end);
+            countRun(activity, epochDay + 1, end, 1);
+        }
+    }
+
+    private void countRun(int activity, int start, int end, int delta) {
+        runLengths[activity].merge(end - start + 1, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    private RoutineSummary build(LocalDate today) {
+        int averageCount = RoutineSummary.AVERAGE_WINDOWS.length;
+        float[][] averages = new float[averageCount][ACTIVITIES];
+        float[] week = new float[ACTIVITIES];
+        float[] previousWeek = new float[ACTIVITIES];
+        int[] current = new int[ACTIVITIES];
+        int[] longest = new int[ACTIVITIES];
+        int todayEpoch = (int) anchor;
+
+        for (int a = 0; a < ACTIVITIES; a++) {
+            for (int w = 0; w < averageCount; w++) {
+                averages[w][a] = (float) (sums[w][a] / WINDOW_LENGTHS[w]);
+            }
+            // The 7-day average window doubles as this week
+            week[a] = (float) sums[0][a];
+            previousWeek[a] = (float) sums[PREVIOUS_WEEK][a];
+
+            Map.Entry<Integer, Integer> run = runs[a].floorEntry(todayEpoch);
+            if (run != null && run.getValue() >= todayEpoch - 1) {
+                current[a] = Math.min(run.getValue(), todayEpoch) - run.getKey() + 1;
+            }
+            longest[a] = runLengths[a].isEmpty() ? 0 : runLengths[a].lastKey();
+        }
+        return new RoutineSummary(today, byId.size(), averages, week, previousWeek, current, longest);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static TreeMap<Integer, Integer>[] newMaps() {
+        TreeMap<Integer, Integer>[] maps = new TreeMap[ACTIVITIES];
+        for (int a = 0; a < ACTIVITIES; a++) {
+            maps[a] = new TreeMap<>();
+        }
+        return maps;
+    }
+}
@@ -0,0 +1,63 @@
+package analytics;
+
+import java.time.LocalDate;
+
+// Figures for one user's routine as of a given day, per activity in RoutineEntry.hours
+// order. Built by RoutineStats; immutable, so it can be kept and read without copying.
+public final class RoutineSummary {
+    // Rolling averages cover the last n days up to and including asOf
+    public static final int[] AVERAGE_WINDOWS = {7, 30, 90};
+
+    private final LocalDate asOf;
+    private final int entries;
+    // [window][activity], hours per calendar day; days without an entry count as 0
+    private final float[][] averages;
+    private final float[] weekTotals;
+    private final float[] previousWeekTotals;
+    private final int[] currentStreaks;
+    private final int[] longestStreaks;
+
+    RoutineSummary(LocalDate asOf, int entries, float[][] averages, float[] weekTotals,
+                   float[] previousWeekTotals, int[] currentStreaks, int[] longestStreaks) {
+        this.asOf = asOf;
+        this.entries = entries;
+        this.averages = averages;
+        this.weekTotals = weekTotals;
+        this.previousWeekTotals = previousWeekTotals;
+        this.currentStreaks = currentStreaks;
+        this.longestStreaks = longestStreaks;
+    }
+
+    public LocalDate asOf() {
+        return asOf;
+    }
+
+    // Number of days with an entry, over the whole history
+    public int entries() {
+        return entries;
+    }
+
+    // window is an index into AVERAGE_WINDOWS
+    public float average(int window, int activity) {
+        return averages[window][activity];
+    }
+
+    // Hours in the 7 days up to asOf
+    public float weekTotal(int activity) {
+        return weekTotals[activity];
+    }
+
+    // This week's hours minus those of the 7 days before
+    public float weekOverWeek(int activity) {
+        return weekTotals[activity] - previousWeekTotals[activity];
+    }
+
+    // Consecutive days with hours ending today, or yesterday while today has no entry yet
+    public int currentStreak(int activity) {
+        return currentStreaks[activity];
+    }
+
+    public int longestStreak(int activity) {
+        return longestStreaks[activity];
+    }
+}
@@ -0,0 +1,238 @@
+package auth;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Throttles sign-in attempts per username and per client before any BCrypt or DB work.
+// Each key has a token bucket for attempt rate; usernames also have a sliding-window
+// counter of recent failures. Clients are rate limited only: a client is a shared lab
+// workstation as often as not, and a few students mistyping their passwords must not
+// lock everyone else out of it. State lives in lock-striped maps so concurrent sign-ins
+// rarely contend.
+public final class LoginRateLimiter {
+    private static final LoginRateLimiter SHARED = new LoginRateLimiter(
+            5, TimeUnit.SECONDS.toNanos(12),     // per username: burst of 5, then 1 every 12 s
+            20, TimeUnit.SECONDS.toNanos(3),     // per client: burst of 20, then 1 every 3 s
+            10, TimeUnit.MINUTES.toNanos(15));   // at most 10 failures per username in 15 minutes
+
+    private static final int STRIPES = 32;
+    private static final int MAX_KEYS_PER_STRIPE = 1024;
+
+    private final int userCapacity;
+    private final long userRefillNanos;
+    private final int clientCapacity;
+    private final long clientRefillNanos;
+    private final int maxFailures;
+    private final long failureWindowNanos;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+
+    public LoginRateLimiter(int userCapacity, long userRefillNanos,
+                            int clientCapacity, long clientRefillNanos,
+                            int maxFailures, long failureWindowNanos) {
+        this.userCapacity = userCapacity;
+        this.userRefillNanos = userRefillNanos;
+        this.clientCapacity = clientCapacity;
+        this.clientRefillNanos = clientRefillNanos;
+        this.maxFailures = maxFailures;
+        this.failureWindowNanos = failureWindowNanos;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public static LoginRateLimiter shared() {
+        return SHARED;
+    }
+
+    // Identifies this workstation; the portal is a desktop client so there is no remote address
+    public static String localClientId() {
+        try {
+            return InetAddress.getLocalHost().getHostName() + "/" + System.getProperty("user.name", "");
+        } catch (UnknownHostException e) {
+            return "local/" + System.getProperty("user.name", "");
+        }
+    }
+
+    // Returns false if either key is over its rate, or the username over its failure
+    // limit; consumes a token otherwise
+    public boolean tryAcquire(String username, String client) {
+        long now = System.nanoTime();
+        String userKey = "u:" + username.toLowerCase(Locale.ROOT);
+        String clientKey = "c:" + client;
+
+        // Check both keys before consuming from either so a rejection costs nothing
+        if (!allows(userKey, userCapacity, userRefillNanos, now)
+                || !allows(clientKey, clientCapacity, clientRefillNanos, now)) {
+            throttled.increment();
+            return false;
+        }
+        consume(userKey, userCapacity, userRefillNanos, now);
+        consume(clientKey, clientCapacity, clientRefillNanos, now);
+        accepted.increment();
+        return true;
+    }
+
+    public void recordFailure(String username) {
+        failed.increment();
+        addFailure("u:" + username.toLowerCase(Locale.ROOT), userCapacity, userRefillNanos, System.nanoTime());
+    }
+
+    // A successful sign-in clears the username's failure history
+    public void recordSuccess(String username) {
+        succeeded.increment();
+        String key = "u:" + username.toLowerCase(Locale.ROOT);
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket != null) {
+                bucket.previousFailures = 0;
+                bucket.currentFailures = 0;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(accepted.sum(), throttled.sum(), failed.sum(), succeeded.sum());
+    }
+
+    // Client keys never record failures, so only their tokens can refuse
+    private boolean allows(String key, int capacity, long refillNanos, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.bucket(key, capacity, now, failureWindowNanos);
+            bucket.refill(capacity, refillNanos, now);
+            return bucket.tokens >= 1 && bucket.recentFailures(now, failureWindowNanos) < maxFailures;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void consume(String key, int capacity, long refillNanos, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.bucket(key, capacity, now, failureWindowNanos);
+            bucket.refill(capacity, refillNanos, now);
+            bucket.tokens = Math.max(0, bucket.tokens - 1);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void addFailure(String key, int capacity, long refillNanos, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.bucket(key, capacity, now, failureWindowNanos);
+            bucket.refill(capacity, refillNanos, now);
+            bucket.roll(now, failureWindowNanos);
+            bucket.currentFailures++;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (STRIPES - 1)];
+    }
+
+    public record Stats(long accepted, long throttled, long failed, long succeeded) {
+        @Override
+        public String toString() {
+            return String.format("accepted=%d throttled=%d failed=%d succeeded=%d",
+                    accepted, throttled, failed, succeeded);
+        }
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<String, Bucket> buckets = new HashMap<>();
+
+        // Caller holds lock
+        Bucket bucket(String key, int capacity, long now, long windowNanos) {
+            Bucket bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= MAX_KEYS_PER_STRIPE) {
+                    evictIdle(now, windowNanos);
+                }
+                bucket = new Bucket(capacity, now);
+                buckets.put(key, bucket);
+            }
+            return bucket;
+        }
+
+        // Drops keys untouched for two failure windows; their state would have decayed anyway
+        private void evictIdle(long now, long windowNanos) {
+            Iterator<Bucket> it = buckets.values().iterator();
+            while (it.hasNext()) {
+                if (now - it.next().lastSeen > 2 * windowNanos) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long lastRefill;
+        long lastSeen;
+        // Sliding window approximated by the current and previous fixed windows
+        long windowStart;
+        int currentFailures;
+        int previousFailures;
+
+        Bucket(int capacity, long now) {
+            tokens = capacity;
+            lastRefill = now;
+            lastSeen = now;
+            windowStart = now;
+        }
+
+        void refill(int capacity, long refillNanos, long now) {
+            long elapsed = now - lastRefill;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + (double) elapsed / refillNanos);
+                lastRefill = now;
+            }
+            lastSeen = now;
+        }
+
+        void roll(long now, long windowNanos) {
+            long elapsed = now - windowStart;
+            if (elapsed >= 2 * windowNanos) {
+                previousFailures = 0;
+                currentFailures = 0;
+                windowStart = now;
+            } else if (elapsed >= windowNanos) {
+                previousFailures = currentFailures;
+                currentFailures = 0;
+                windowStart += windowNanos;
+            }
+        }
+
+        double recentFailures(long now, long windowNanos) {
+            roll(now, windowNanos);
+            double previousWeight = 1.0 - (double) (now - windowStart) / windowNanos;
+            return currentFailures + previousFailures * previousWeight;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package auth;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// BCrypt hashing on a dedicated, bounded pool. The work factor is calibrated once at
+// startup so a single hash takes roughly TARGET_MILLIS on this machine. Callers block
+// on the result, so these methods must not be called from the EDT.
+public final class PasswordHasher {
+    private static final long TARGET_MILLIS = Long.getLong("portal.bcrypt.targetMillis", 250);
+    private static final int MIN_COST = 10;
+    private static final int MAX_COST = 16;
+    private static final int PROBE_COST = 6;
+
+    private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int QUEUE_CAPACITY = 32;
+
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+            THREADS, THREADS, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "password-hasher-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    t.setPriority(Thread.NORM_PRIORITY - 1);
+                    return t;
+                }
+            },
+            (r, executor) -> {
+                throw new RejectedExecutionException("Too many sign-in requests in progress, please try again.");
+            });
+
+    private static final CompletableFuture<Integer> COST = CompletableFuture.supplyAsync(
+            PasswordHasher::calibrate, EXECUTOR);
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private PasswordHasher() {
+    }
+
+    // Forces class initialization so calibration runs while the sign-in form is shown
+    public static void startCalibration() {
+    }
+
+    public static int targetCost() {
+        return COST.join();
+    }
+
+    public static String hash(String password) throws InterruptedException {
+        return await(CompletableFuture.supplyAsync(
+                () -> BCrypt.hashpw(password, BCrypt.gensalt(targetCost())), EXECUTOR));
+    }
+
+    // Hashes on the calling thread, for bulk jobs that manage their own parallelism
+    public static String hashOnCurrentThread(String password) {
+        return BCrypt.hashpw(password, BCrypt.gensalt(targetCost()));
+    }
+
+    // False for null or non-BCrypt hashes instead of throwing
+    public static boolean verify(String password, String storedHash) throws InterruptedException {
+        if (storedHash == null || !storedHash.startsWith("$2")) {
+            return false;
+        }
+        return await(CompletableFuture.supplyAsync(() -> BCrypt.checkpw(password, storedHash), EXECUTOR));
+    }
+
+    // True when storedHash was produced with a different work factor than the calibrated one
+    public static boolean needsRehash(String storedHash) {
+        int cost = costOf(storedHash);
+        return cost > 0 && cost != targetCost();
+    }
+
+    static int costOf(String hash) {
+        // Format: $2a$NN$<salt+hash>
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int calibrate() {
+        String salt = BCrypt.gensalt(PROBE_COST);
+        BCrypt.hashpw("calibration", salt); // warm up
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double probeMillis = Math.max(best / 1_000_000.0, 0.01);
+        // Each extra round doubles the work
+        int cost = PROBE_COST + (int) Math.round(Math.log(TARGET_MILLIS / probeMillis) / Math.log(2));
+        return Math.max(MIN_COST, Math.min(MAX_COST, cost));
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+}
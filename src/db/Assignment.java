@@ -0,0 +1,6 @@
+package db;
+
+import java.time.LocalDate;
+
+public record Assignment(int id, int userId, String title, String description, LocalDate deadline, boolean submitted) {
+}
@@ -0,0 +1,81 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class AssignmentDao {
+    static final String SELECT_BY_USER =
+            "SELECT id, user_id, title, description, deadline, submitted FROM assignments " +
+            "WHERE user_id = ? ORDER BY deadline DESC";
+    private static final String INSERT =
+            "INSERT INTO assignments (user_id, title, description, deadline, submitted) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_SUBMITTED = "UPDATE assignments SET submitted = ? WHERE id = ?";
+
+    public List<Assignment> findByUser(int userId) throws SQLException {
+        List<Assignment> assignments = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_USER)) {
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    assignments.add(new Assignment(rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getString(4),
+                            rs.getDate(5).toLocalDate(), rs.getBoolean(6)));
+                }
+            }
+        }
+        return assignments;
+    }
+
+    public boolean insert(int userId, String title, String description, LocalDate deadline,
+                          boolean submitted) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT)) {
+            stmt.setInt(1, userId);
+            stmt.setString(2, title);
+            stmt.setString(3, description);
+            stmt.setDate(4, Date.valueOf(deadline));
+            stmt.setBoolean(5, submitted);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    // Writes every id -> submitted pair in one batched transaction and returns the ids
+    // that matched no row (deleted meanwhile). Nothing is written if the batch fails.
+    public Set<Integer> setSubmitted(Map<Integer, Boolean> submittedById) throws SQLException {
+        Set<Integer> missing = new LinkedHashSet<>();
+        if (submittedById.isEmpty()) return missing;
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(UPDATE_SUBMITTED)) {
+                List<Integer> ids = new ArrayList<>(submittedById.size());
+                for (Map.Entry<Integer, Boolean> entry : submittedById.entrySet()) {
+                    stmt.setBoolean(1, entry.getValue());
+                    stmt.setInt(2, entry.getKey());
+                    stmt.addBatch();
+                    ids.add(entry.getKey());
+                }
+                int[] counts = stmt.executeBatch();
+                conn.commit();
+                for (int i = 0; i < counts.length; i++) {
+                    // SUCCESS_NO_INFO means the driver did not report a count, not a miss
+                    if (counts[i] == 0) missing.add(ids.get(i));
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return missing;
+    }
+}
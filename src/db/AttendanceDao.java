@@ -0,0 +1,23 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+public class AttendanceDao {
+    private static final String INSERT =
+            "INSERT INTO attendance (user_id, attendance_date, status, remarks) VALUES (?, ?, ?, ?)";
+
+    public boolean insert(int userId, LocalDate date, String status, String remarks) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT)) {
+            stmt.setInt(1, userId);
+            stmt.setDate(2, Date.valueOf(date));
+            stmt.setString(3, status);
+            stmt.setString(4, remarks);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Bounded JDBC connection pool. Connections handed out are proxies whose close()
+// returns the physical connection to the pool instead of closing it, and whose
+// prepareStatement(String) is served from that connection's StatementCache.
+public class ConnectionPool {
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final ArrayDeque<PhysicalConnection> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+
+    // Guarded by lock
+    private int total;
+    private int waiters;
+    private long borrowCount;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    private boolean shutdown;
+
+    public ConnectionPool(String url, String user, String password,
+                          int minSize, int maxSize,
+                          long idleTimeoutMillis, long borrowTimeoutMillis,
+                          int validationTimeoutSeconds, int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::maintain, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+
+        while (true) {
+            PhysicalConnection candidate = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (shutdown) {
+                        throw new SQLException("Connection pool is shut down");
+                    }
+                    candidate = idle.pollFirst();
+                    if (candidate != null) break;
+                    if (total < maxSize) {
+                        total++;
+                        create = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SQLException("Timed out after " + borrowTimeoutMillis
+                                + " ms waiting for a database connection (pool size " + maxSize + ")");
+                    }
+                    waiters++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    } finally {
+                        waiters--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            PhysicalConnection physical;
+            if (create) {
+                try {
+                    physical = open();
+                } catch (SQLException | RuntimeException e) {
+                    discarded();
+                    throw e;
+                }
+            } else if (isValid(candidate.connection)) {
+                physical = candidate;
+            } else {
+                candidate.close();
+                discarded();
+                continue;
+            }
+
+            recordBorrow(System.nanoTime() - start);
+            return wrap(physical);
+        }
+    }
+
+    public PoolStats getStats() {
+        lock.lock();
+        try {
+            int idleCount = idle.size();
+            return new PoolStats(total - idleCount, idleCount, total, maxSize, waiters, borrowCount,
+                    TimeUnit.NANOSECONDS.toMillis(totalWaitNanos),
+                    TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void shutdown() {
+        evictor.shutdownNow();
+        lock.lock();
+        try {
+            shutdown = true;
+            for (PhysicalConnection c : idle) {
+                c.close();
+                total--;
+            }
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private PhysicalConnection open() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, user, password);
+        return new PhysicalConnection(connection, new StatementCache(connection, statementCacheSize));
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            return !connection.isClosed() && connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void recordBorrow(long waitNanos) {
+        lock.lock();
+        try {
+            borrowCount++;
+            totalWaitNanos += waitNanos;
+            if (waitNanos > maxWaitNanos) maxWaitNanos = waitNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A physical connection was closed or never opened; free its slot
+    private void discarded() {
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(PhysicalConnection physical) {
+        Connection connection = physical.connection;
+        boolean reusable;
+        try {
+            reusable = !connection.isClosed();
+            if (reusable && !connection.getAutoCommit()) {
+                // Never hand out a connection with a half-finished transaction
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if (reusable && connection.isReadOnly()) {
+                connection.setReadOnly(false);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (!reusable) {
+            physical.close();
+            discarded();
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (shutdown) {
+                physical.close();
+                total--;
+                return;
+            }
+            physical.lastUsed = System.currentTimeMillis();
+            idle.addFirst(physical);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Evicts connections idle longer than the timeout and tops the pool up to minSize
+    private void maintain() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        ArrayDeque<PhysicalConnection> toClose = new ArrayDeque<>();
+        int missing;
+
+        lock.lock();
+        try {
+            // Oldest connections sit at the tail since releases push to the head
+            Iterator<PhysicalConnection> it = idle.descendingIterator();
+            while (it.hasNext() && total > minSize) {
+                PhysicalConnection c = it.next();
+                if (c.lastUsed >= cutoff) break;
+                it.remove();
+                toClose.add(c);
+                total--;
+            }
+            missing = shutdown ? 0 : minSize - total;
+            total += Math.max(0, missing);
+        } finally {
+            lock.unlock();
+        }
+
+        toClose.forEach(PhysicalConnection::close);
+
+        for (int i = 0; i < missing; i++) {
+            try {
+                release(open());
+            } catch (SQLException e) {
+                discarded();
+            }
+        }
+    }
+
+    private Connection wrap(PhysicalConnection physical) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnectionHandler(physical));
+    }
+
+    private static class PhysicalConnection {
+        final Connection connection;
+        final StatementCache statements;
+        long lastUsed;
+
+        PhysicalConnection(Connection connection, StatementCache statements) {
+            this.connection = connection;
+            this.statements = statements;
+        }
+
+        void close() {
+            statements.closeAll();
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    private class PooledConnectionHandler implements InvocationHandler {
+        private final PhysicalConnection physical;
+        private boolean closed;
+
+        PooledConnectionHandler(PhysicalConnection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(physical);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.connection.isClosed();
+                case "prepareStatement":
+                    if (closed) {
+                        throw new SQLException("Connection is closed");
+                    }
+                    if (args.length == 1) {
+                        return physical.statements.prepare((String) args[0], (Connection) proxy);
+                    }
+                    break;
+                case "unwrap":
+                case "isWrapperFor":
+                case "equals":
+                case "hashCode":
+                case "toString":
+                    break;
+                default:
+                    if (closed) {
+                        throw new SQLException("Connection is closed");
+                    }
+            }
+            if ("equals".equals(method.getName())) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(method.getName())) {
+                return System.identityHashCode(proxy);
+            }
+            try {
+                return method.invoke(physical.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
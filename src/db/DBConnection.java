@@ -1,23 +1,62 @@
 package db;
 
+import java.io.IOException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DBConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/student_portal";
-    private static final String USER = "root";
-    private static final String PASSWORD = "";
-
-    static {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException("MySQL JDBC Driver not found", e);
+    // Backend, credentials and pool sizing; see DatabaseConfig for the keys
+    private static final DatabaseConfig CONFIG = DatabaseConfig.load();
+
+    // Created on first use rather than with CONFIG, so reading the config (e.g. to size
+    // ui.DbExecutor) never opens connections or runs migrations on the calling thread
+    private static final class Pool {
+        static final ConnectionPool INSTANCE;
+
+        static {
+            try {
+                Class.forName(CONFIG.driver());
+            } catch (ClassNotFoundException e) {
+                throw new RuntimeException("JDBC driver not found: " + CONFIG.driver(), e);
+            }
+            INSTANCE = new ConnectionPool(CONFIG.url(), CONFIG.user(), CONFIG.password(),
+                    CONFIG.minPoolSize(), CONFIG.maxPoolSize(), CONFIG.idleTimeoutMillis(),
+                    CONFIG.borrowTimeoutMillis(), CONFIG.validationTimeoutSeconds(), CONFIG.statementCacheSize());
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if (Boolean.getBoolean("portal.db.dumpStatsOnExit")) {
+                    QueryMetrics.dump(System.err);
+                }
+                INSTANCE.shutdown();
+            }, "db-pool-shutdown"));
+
+            if (CONFIG.bootstrap()) {
+                try (Connection conn = INSTANCE.borrow()) {
+                    SchemaBootstrap.apply(conn, CONFIG.schemaFile(), CONFIG.isEmbedded());
+                } catch (SQLException | IOException e) {
+                    throw new IllegalStateException("Cannot create schema from " + CONFIG.schemaFile(), e);
+                }
+            }
+            if (CONFIG.migrate()) {
+                try (Connection conn = INSTANCE.borrow()) {
+                    SchemaMigrator.migrate(conn);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Schema migration failed", e);
+                }
+            }
         }
     }
 
+    // Borrows a pooled connection; closing it returns it to the pool. Statements it
+    // creates are timed by QueryMetrics.
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return QueryMetrics.instrument(Pool.INSTANCE.borrow());
+    }
+
+    public static DatabaseConfig getConfig() {
+        return CONFIG;
+    }
+
+    public static PoolStats getPoolStats() {
+        return Pool.INSTANCE.getStats();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+// Database backend settings. Values come from, in increasing priority: the defaults
+// for the chosen backend, the properties file named by -Dportal.config (default
+// ./portal.properties, optional) and -D system properties with the same keys.
+//
+//   portal.db.backend    mysql (default) or h2 for an in-process database
+//   portal.db.url / portal.db.user / portal.db.password / portal.db.driver
+//   portal.db.pool.min / portal.db.pool.max / portal.db.statementCacheSize
+//   portal.db.bootstrap  run the schema file on startup (default true for h2)
+//   portal.db.schema     schema file to bootstrap from (default "sql table.txt")
+//   portal.db.migrate    apply SchemaMigrator migrations on startup (default true)
+public record DatabaseConfig(String backend, String url, String user, String password, String driver,
+                             int minPoolSize, int maxPoolSize, long idleTimeoutMillis, long borrowTimeoutMillis,
+                             int validationTimeoutSeconds, int statementCacheSize,
+                             boolean bootstrap, Path schemaFile, boolean migrate) {
+
+    public static final String MYSQL = "mysql";
+    public static final String H2 = "h2";
+
+    // rewriteBatchedStatements lets executeBatch send one multi-row INSERT per batch
+    private static final String MYSQL_URL = "jdbc:mysql://localhost:3306/student_portal?rewriteBatchedStatements=true";
+    // DB_CLOSE_DELAY keeps the in-memory database alive while the pool has no open connection
+    private static final String H2_URL = "jdbc:h2:mem:student_portal;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1";
+
+    public boolean isEmbedded() {
+        return H2.equals(backend);
+    }
+
+    public static DatabaseConfig load() {
+        Properties props = new Properties();
+        Path file = Paths.get(System.getProperty("portal.config", "portal.properties"));
+        if (Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                props.load(in);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read database config " + file, e);
+            }
+        }
+        props.putAll(System.getProperties());
+        return fromProperties(props);
+    }
+
+    public static DatabaseConfig fromProperties(Properties props) {
+        String backend = props.getProperty("portal.db.backend", MYSQL).trim().toLowerCase();
+        boolean embedded;
+        switch (backend) {
+            case MYSQL:
+                embedded = false;
+                break;
+            case H2:
+                embedded = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown portal.db.backend: " + backend);
+        }
+
+        return new DatabaseConfig(
+                backend,
+                props.getProperty("portal.db.url", embedded ? H2_URL : MYSQL_URL),
+                props.getProperty("portal.db.user", embedded ? "sa" : "root"),
+                props.getProperty("portal.db.password", ""),
+                props.getProperty("portal.db.driver", embedded ? "org.h2.Driver" : "com.mysql.cj.jdbc.Driver"),
+                intProperty(props, "portal.db.pool.min", 2),
+                // a desktop client rarely needs more than a handful of connections
+                intProperty(props, "portal.db.pool.max", 10),
+                longProperty(props, "portal.db.pool.idleTimeoutMillis", 5 * 60 * 1000),
+                longProperty(props, "portal.db.pool.borrowTimeoutMillis", 10 * 1000),
+                intProperty(props, "portal.db.pool.validationTimeoutSeconds", 2),
+                // prepared statements kept open per pooled connection
+                intProperty(props, "portal.db.statementCacheSize", 64),
+                Boolean.parseBoolean(props.getProperty("portal.db.bootstrap", String.valueOf(embedded))),
+                Paths.get(props.getProperty("portal.db.schema", "sql table.txt")),
+                Boolean.parseBoolean(props.getProperty("portal.db.migrate", "true")));
+    }
+
+    private static int intProperty(Properties props, String key, int defaultValue) {
+        String value = props.getProperty(key);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": " + value, e);
+        }
+    }
+
+    private static long longProperty(Properties props, String key, long defaultValue) {
+        String value = props.getProperty(key);
+        try {
+            return value == null ? defaultValue : Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": " + value, e);
+        }
+    }
+
+    // Never print the password
+    @Override
+    public String toString() {
+        return backend + " " + url + " as " + user + " (pool " + minPoolSize + ".." + maxPoolSize + ")";
+    }
+}
@@ -0,0 +1,4 @@
+package db;
+
+public record LibraryBook(int id, String title, String author, String isbn, int publishedYear, int availableCopies) {
+}
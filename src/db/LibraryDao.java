@@ -0,0 +1,41 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LibraryDao {
+    static final String SELECT_ALL =
+            "SELECT id, title, author, isbn, published_year, available_copies FROM library ORDER BY title";
+    private static final String INSERT =
+            "INSERT INTO library (title, author, isbn, published_year, available_copies) VALUES (?, ?, ?, ?, ?)";
+
+    public List<LibraryBook> findAll() throws SQLException {
+        List<LibraryBook> books = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_ALL);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                books.add(new LibraryBook(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getInt(5), rs.getInt(6)));
+            }
+        }
+        return books;
+    }
+
+    public boolean insert(String title, String author, String isbn, int publishedYear,
+                          int availableCopies) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT)) {
+            stmt.setString(1, title);
+            stmt.setString(2, author);
+            stmt.setString(3, isbn);
+            stmt.setInt(4, publishedYear);
+            stmt.setInt(5, availableCopies);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// One numbered schema change applied by SchemaMigrator. Every step must be safe to run
+// again against a database that already has the change, so a lost or reset
+// schema_version table never breaks startup.
+public record Migration(int version, String description, List<Step> steps) {
+
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    public Migration(int version, String description, Step... steps) {
+        this(version, description, List.of(steps));
+    }
+
+    // CREATE INDEX unless an index with that name already exists on the table. A column
+    // may carry a MySQL prefix length, e.g. "name(20)"; other backends index the whole column.
+    public static Step createIndex(String table, String name, String... columns) {
+        return conn -> {
+            if (indexExists(conn, table, name)) return;
+            String columnList = String.join(", ", columns);
+            if (!isMySql(conn)) columnList = columnList.replaceAll("\\s*\\(\\s*\\d+\\s*\\)", "");
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE INDEX " + name + " ON " + table + " (" + columnList + ")");
+            }
+        };
+    }
+
+    private static boolean isMySql(Connection conn) throws SQLException {
+        return conn.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+    }
+
+    static boolean indexExists(Connection conn, String table, String name) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        // Identifier case differs between backends; try the name as written and both folds
+        for (String t : new String[]{table, table.toUpperCase(), table.toLowerCase()}) {
+            try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), null, t, false, false)) {
+                while (rs.next()) {
+                    if (name.equalsIgnoreCase(rs.getString("INDEX_NAME"))) return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,18 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+public class NoticeDao {
+    private static final String INSERT = "INSERT INTO notices (title, content) VALUES (?, ?)";
+
+    public boolean insert(String title, String content) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT)) {
+            stmt.setString(1, title);
+            stmt.setString(2, content);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+}
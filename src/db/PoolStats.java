@@ -0,0 +1,16 @@
+package db;
+
+// Point-in-time snapshot of ConnectionPool usage
+public record PoolStats(int active, int idle, int total, int maxSize, int waiters,
+                        long borrowCount, long totalWaitMillis, long maxWaitMillis) {
+
+    public double averageWaitMillis() {
+        return borrowCount == 0 ? 0 : (double) totalWaitMillis / borrowCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("active=%d idle=%d total=%d/%d waiters=%d borrows=%d avgWait=%.2fms maxWait=%dms",
+                active, idle, total, maxSize, waiters, borrowCount, averageWaitMillis(), maxWaitMillis);
+    }
+}
@@ -0,0 +1,343 @@
+package db;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Per-SQL-shape latency histograms, row counts and error counts for every statement
+// run through a connection from DBConnection. Statements slower than the threshold
+// are written to the slow query log (portal.db.slowQueryLog, or stderr when unset).
+// Latency covers execute*() only; rows are counted as the caller reads them.
+public final class QueryMetrics {
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("portal.db.instrument", "true"));
+
+    // Histogram bucket upper bounds; the last bucket is open-ended
+    private static final long[] BUCKET_MILLIS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Shape -> stats, plus a cache from exact prepared SQL text to its stats
+    private static final ConcurrentHashMap<String, Shape> SHAPES = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Shape> BY_SQL = new ConcurrentHashMap<>();
+    private static final int MAX_CACHED_SQL = 1024;
+
+    private static volatile long slowThresholdNanos =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("portal.db.slowQueryMillis", 200));
+    private static final SlowQueryLog SLOW_LOG = new SlowQueryLog(System.getProperty("portal.db.slowQueryLog"));
+
+    private QueryMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static long getSlowQueryThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    public static void setSlowQueryThresholdMillis(long millis) {
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    // Wraps a connection so every statement it creates is measured
+    public static Connection instrument(Connection connection) {
+        if (!ENABLED) return connection;
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    // Stats for every shape seen since startup or the last reset(), slowest total first
+    public static List<QueryStats> snapshot() {
+        List<QueryStats> stats = new ArrayList<>(SHAPES.size());
+        for (Shape shape : SHAPES.values()) {
+            stats.add(shape.snapshot());
+        }
+        stats.sort(Comparator.comparingLong(QueryStats::totalMillis).reversed());
+        return stats;
+    }
+
+    public static String summary() {
+        List<QueryStats> stats = snapshot();
+        StringBuilder sb = new StringBuilder();
+        sb.append("Query statistics (").append(stats.size()).append(" shapes, slow threshold ")
+                .append(getSlowQueryThresholdMillis()).append(" ms)\n");
+        for (QueryStats s : stats) {
+            sb.append(s).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static void dump(PrintStream out) {
+        out.print(summary());
+        out.flush();
+    }
+
+    public static void reset() {
+        SHAPES.clear();
+        BY_SQL.clear();
+    }
+
+    // Collapses literals and whitespace so statements differing only in values share a shape
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        return IN_LIST.matcher(shape).replaceAll("(?)");
+    }
+
+    private static Shape shapeOf(String sql) {
+        Shape shape = BY_SQL.get(sql);
+        if (shape != null) return shape;
+        shape = SHAPES.computeIfAbsent(normalize(sql), Shape::new);
+        if (BY_SQL.size() < MAX_CACHED_SQL) {
+            BY_SQL.put(sql, shape);
+        }
+        return shape;
+    }
+
+    private static final class Shape {
+        final String text;
+        final LongAdder executions = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final AtomicLongArray buckets = new AtomicLongArray(BUCKET_MILLIS.length + 1);
+
+        Shape(String text) {
+            this.text = text;
+        }
+
+        void record(long nanos, boolean failed) {
+            executions.increment();
+            if (failed) errors.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            buckets.incrementAndGet(bucketOf(nanos));
+            if (nanos >= slowThresholdNanos) {
+                SLOW_LOG.write(this, nanos, failed);
+            }
+        }
+
+        QueryStats snapshot() {
+            long[] counts = new long[buckets.length()];
+            long n = 0;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = buckets.get(i);
+                n += counts[i];
+            }
+            long max = TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+            return new QueryStats(text, executions.sum(), errors.sum(), rows.sum(),
+                    TimeUnit.NANOSECONDS.toMillis(totalNanos.sum()), max,
+                    percentile(counts, n, 0.50, max), percentile(counts, n, 0.95, max),
+                    percentile(counts, n, 0.99, max));
+        }
+
+        private static int bucketOf(long nanos) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            for (int i = 0; i < BUCKET_MILLIS.length; i++) {
+                if (millis < BUCKET_MILLIS[i]) return i;
+            }
+            return BUCKET_MILLIS.length;
+        }
+
+        private static long percentile(long[] counts, long n, double p, long max) {
+            if (n == 0) return 0;
+            long rank = (long) Math.ceil(p * n);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_MILLIS.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(BUCKET_MILLIS[i], max);
+            }
+            return max;
+        }
+    }
+
+    private static final class SlowQueryLog {
+        private final Path file;
+        private Writer writer;
+
+        SlowQueryLog(String path) {
+            this.file = path == null || path.isEmpty() ? null : Paths.get(path);
+        }
+
+        synchronized void write(Shape shape, long nanos, boolean failed) {
+            String line = String.format("%s [%s] slow query %d ms%s: %s%n", LocalDateTime.now(),
+                    Thread.currentThread().getName(), TimeUnit.NANOSECONDS.toMillis(nanos),
+                    failed ? " (failed)" : "", shape.text);
+            if (file != null) {
+                try {
+                    if (writer == null) {
+                        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                    }
+                    writer.write(line);
+                    writer.flush();
+                    return;
+                } catch (IOException e) {
+                    // Fall back to stderr rather than lose the entry
+                    writer = null;
+                }
+            }
+            System.err.print(line);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "prepareStatement":
+                case "prepareCall": {
+                    Statement statement = (Statement) QueryMetrics.invoke(target, method, args);
+                    return wrap(statement, method.getReturnType(), (Connection) proxy, shapeOf((String) args[0]));
+                }
+                case "createStatement": {
+                    Statement statement = (Statement) QueryMetrics.invoke(target, method, args);
+                    return wrap(statement, Statement.class, (Connection) proxy, null);
+                }
+                default:
+                    return QueryMetrics.invoke(target, method, args);
+            }
+        }
+
+        private static Object wrap(Statement statement, Class<?> type, Connection owner, Shape shape) {
+            return Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{type},
+                    new StatementHandler(statement, owner, shape));
+        }
+    }
+
+    // shape is fixed for prepared statements; plain statements resolve it from each execute's SQL
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final Connection owner;
+        private final Shape prepared;
+
+        StatementHandler(Statement target, Connection owner, Shape prepared) {
+            this.target = target;
+            this.owner = owner;
+            this.prepared = prepared;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getConnection":
+                    return owner;
+                default:
+                    if (!name.startsWith("execute")) {
+                        return QueryMetrics.invoke(target, method, args);
+                    }
+            }
+
+            Shape shape = prepared;
+            if (args != null && args.length > 0 && args[0] instanceof String) {
+                shape = shapeOf((String) args[0]);
+            }
+            if (shape == null) {
+                // e.g. executeBatch() on a plain Statement; nothing to attribute it to
+                return QueryMetrics.invoke(target, method, args);
+            }
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = QueryMetrics.invoke(target, method, args);
+            } catch (SQLException | RuntimeException e) {
+                shape.record(System.nanoTime() - start, true);
+                throw e;
+            }
+            shape.record(System.nanoTime() - start, false);
+
+            if (result instanceof ResultSet) {
+                return countRows((ResultSet) result, (Statement) proxy, shape);
+            }
+            if (result instanceof Integer || result instanceof Long) {
+                shape.rows.add(Math.max(0, ((Number) result).longValue()));
+            } else if (result instanceof int[]) {
+                for (int n : (int[]) result) shape.rows.add(Math.max(0, n));
+            } else if (result instanceof long[]) {
+                for (long n : (long[]) result) shape.rows.add(Math.max(0, n));
+            }
+            return result;
+        }
+
+        private static ResultSet countRows(ResultSet rs, Statement owner, Shape shape) {
+            return (ResultSet) Proxy.newProxyInstance(
+                    ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "next": {
+                                Object more = QueryMetrics.invoke(rs, method, args);
+                                if ((Boolean) more) shape.rows.increment();
+                                return more;
+                            }
+                            case "getStatement":
+                                return owner;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                return QueryMetrics.invoke(rs, method, args);
+                        }
+                    });
+        }
+    }
+}
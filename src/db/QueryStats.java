@@ -0,0 +1,18 @@
+package db;
+
+// Point-in-time snapshot of the statistics QueryMetrics keeps for one SQL shape.
+// Percentiles are the upper bound of the histogram bucket they fall into.
+public record QueryStats(String shape, long executions, long errors, long rows,
+                         long totalMillis, long maxMillis, long p50Millis, long p95Millis, long p99Millis) {
+
+    public double averageMillis() {
+        return executions == 0 ? 0 : (double) totalMillis / executions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d err=%d rows=%d total=%dms avg=%.2fms p50<=%dms p95<=%dms p99<=%dms max=%dms  %s",
+                executions, errors, rows, totalMillis, averageMillis(), p50Millis, p95Millis, p99Millis,
+                maxMillis, shape);
+    }
+}
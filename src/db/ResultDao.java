@@ -0,0 +1,36 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+// Exam results and per-subject CSE grades (cse_student_data)
+public class ResultDao {
+    private static final String INSERT =
+            "INSERT INTO results (user_id, course_name, exam_date, grade) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_CSE_GRADE =
+            "INSERT INTO cse_student_data (user_id, subject, grade) VALUES (?, ?, ?)";
+
+    public boolean insert(int userId, String courseName, LocalDate examDate, String grade) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT)) {
+            stmt.setInt(1, userId);
+            stmt.setString(2, courseName);
+            stmt.setDate(3, Date.valueOf(examDate));
+            stmt.setString(4, grade);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    public boolean insertCseGrade(int userId, String subject, String grade) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_CSE_GRADE)) {
+            stmt.setInt(1, userId);
+            stmt.setString(2, subject);
+            stmt.setString(3, grade);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Data access for routine_tracker (daily hours) and routine_logs (daily goals)
+public class RoutineDao {
+    private static final String COLUMNS = "id, user_id, date, reading_hours, prayer_hours, bodybuilding_hours, " +
+            "friend_connection_hours, gift_giving_hours, newspaper_hours, remarks";
+
+    static final String SELECT_BY_USER =
+            "SELECT " + COLUMNS + " FROM routine_tracker WHERE user_id = ? ORDER BY date DESC";
+    // One row per day with its hours summed across activities; a NULL column counts as 0
+    static final String SELECT_DAILY_TOTALS =
+            "SELECT date, SUM(COALESCE(reading_hours, 0) + COALESCE(prayer_hours, 0) + " +
+            "COALESCE(bodybuilding_hours, 0) + COALESCE(friend_connection_hours, 0) + " +
+            "COALESCE(gift_giving_hours, 0) + COALESCE(newspaper_hours, 0)) " +
+            "FROM routine_tracker WHERE user_id = ? AND date BETWEEN ? AND ? GROUP BY date";
+    private static final String SELECT_RANGE =
+            "SELECT " + COLUMNS + " FROM routine_tracker WHERE user_id = ? AND date BETWEEN ? AND ?";
+    private static final String UPSERT =
+            "INSERT INTO routine_tracker (user_id, date, reading_hours, prayer_hours, bodybuilding_hours, " +
+            "friend_connection_hours, gift_giving_hours, newspaper_hours, remarks) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE reading_hours = VALUES(reading_hours), prayer_hours = VALUES(prayer_hours), " +
+            "bodybuilding_hours = VALUES(bodybuilding_hours), " +
+            "friend_connection_hours = VALUES(friend_connection_hours), " +
+            "gift_giving_hours = VALUES(gift_giving_hours), newspaper_hours = VALUES(newspaper_hours), " +
+            "remarks = VALUES(remarks)";
+    private static final String UPDATE =
+            "UPDATE routine_tracker SET reading_hours=?, prayer_hours=?, bodybuilding_hours=?, " +
+            "friend_connection_hours=?, gift_giving_hours=?, newspaper_hours=?, remarks=? WHERE id=?";
+    private static final String DELETE = "DELETE FROM routine_tracker WHERE id = ?";
+    private static final String INSERT_LOG =
+            "INSERT INTO routine_logs (user_id, task, short_term_goal, long_term_goal, reflection, log_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    public List<RoutineEntry> findByUser(int userId) throws SQLException {
+        List<RoutineEntry> entries = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_USER)) {
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(map(rs));
+                }
+            }
+        }
+        return entries;
+    }
+
+    // Total hours per day from..to inclusive, indexed by days since from; 0 where nothing
+    // was logged. Summed in the database, so only one number per day comes back.
+    public float[] findDailyTotals(int userId, LocalDate from, LocalDate to) throws SQLException {
+        float[] totals = new float[(int) (to.toEpochDay() - from.toEpochDay() + 1)];
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_DAILY_TOTALS)) {
+            stmt.setInt(1, userId);
+            stmt.setDate(2, Date.valueOf(from));
+            stmt.setDate(3, Date.valueOf(to));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totals[(int) (rs.getDate(1).toLocalDate().toEpochDay() - from.toEpochDay())] = rs.getFloat(2);
+                }
+            }
+        }
+        return totals;
+    }
+
+    // Stored entries from..to inclusive by date; a plain read that takes no locks
+    public Map<LocalDate, RoutineEntry> findRange(int userId, LocalDate from, LocalDate to) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            return findRange(conn, userId, from, to);
+        }
+    }
+
+    // Writes one entry per day (ids are ignored), replacing whatever those days hold, as
+    // one batched INSERT ... ON DUPLICATE KEY UPDATE in its own transaction, so nothing is
+    // written if any day fails. Row locks are held only for the batch and the commit. The
+    // saved rows are then read back for their ids: with updated and inserted rows mixed
+    // in one statement, MySQL's generated keys do not say which id belongs to which day.
+    // Returns the saved rows in date order.
+    public List<RoutineEntry> upsert(int userId, List<RoutineEntry> days) throws SQLException {
+        if (days.isEmpty()) return List.of();
+        List<RoutineEntry> sorted = new ArrayList<>(days);
+        sorted.sort(Comparator.comparing(RoutineEntry::date));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).date().equals(sorted.get(i - 1).date())) {
+                throw new IllegalArgumentException("More than one entry for " + sorted.get(i).date());
+            }
+        }
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(UPSERT)) {
+                for (RoutineEntry day : sorted) {
+                    stmt.setInt(1, userId);
+                    stmt.setDate(2, Date.valueOf(day.date()));
+                    for (int a = 0; a < RoutineEntry.ACTIVITIES; a++) {
+                        stmt.setFloat(3 + a, day.hours(a));
+                    }
+                    stmt.setString(9, day.remarks());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            Map<LocalDate, RoutineEntry> saved = findRange(conn, userId,
+                    sorted.get(0).date(), sorted.get(sorted.size() - 1).date());
+            List<RoutineEntry> results = new ArrayList<>(sorted.size());
+            for (RoutineEntry day : sorted) {
+                results.add(saved.get(day.date()));
+            }
+            return results;
+        }
+    }
+
+    public boolean update(int routineId, float reading, float prayer, float bodybuilding,
+                          float friend, float gift, float newspaper, String remarks) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPDATE)) {
+            stmt.setFloat(1, reading);
+            stmt.setFloat(2, prayer);
+            stmt.setFloat(3, bodybuilding);
+            stmt.setFloat(4, friend);
+            stmt.setFloat(5, gift);
+            stmt.setFloat(6, newspaper);
+            stmt.setString(7, remarks);
+            stmt.setInt(8, routineId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    public boolean delete(int routineId) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DELETE)) {
+            stmt.setInt(1, routineId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    public boolean insertLog(int userId, String task, String shortTermGoal, String longTermGoal,
+                          String reflection, LocalDate logDate) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_LOG)) {
+            stmt.setInt(1, userId);
+            stmt.setString(2, task);
+            stmt.setString(3, shortTermGoal);
+            stmt.setString(4, longTermGoal);
+            stmt.setString(5, reflection);
+            stmt.setDate(6, Date.valueOf(logDate));
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    private static Map<LocalDate, RoutineEntry> findRange(Connection conn, int userId,
+                                                          LocalDate from, LocalDate to) throws SQLException {
+        Map<LocalDate, RoutineEntry> byDate = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_RANGE)) {
+            stmt.setInt(1, userId);
+            stmt.setDate(2, Date.valueOf(from));
+            stmt.setDate(3, Date.valueOf(to));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    RoutineEntry entry = map(rs);
+                    byDate.put(entry.date(), entry);
+                }
+            }
+        }
+        return byDate;
+    }
+
+    // Column positions follow COLUMNS
+    static RoutineEntry map(ResultSet rs) throws SQLException {
+        return new RoutineEntry(rs.getInt(1), rs.getInt(2), rs.getDate(3).toLocalDate(),
+                rs.getFloat(4), rs.getFloat(5), rs.getFloat(6), rs.getFloat(7), rs.getFloat(8), rs.getFloat(9),
+                rs.getString(10));
+    }
+}
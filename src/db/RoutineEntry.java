@@ -0,0 +1,28 @@
+package db;
+
+import java.time.LocalDate;
+
+// One routine_tracker row: hours spent per activity on a given day
+public record RoutineEntry(int id, int userId, LocalDate date,
+                           float readingHours, float prayerHours, float bodybuildingHours,
+                           float friendConnectionHours, float giftGivingHours, float newspaperHours,
+                           String remarks) {
+    public static final int ACTIVITIES = 6;
+
+    // activity 0..5: reading, prayer, bodybuilding, friend, gift, newspaper
+    public float hours(int activity) {
+        switch (activity) {
+            case 0: return readingHours;
+            case 1: return prayerHours;
+            case 2: return bodybuildingHours;
+            case 3: return friendConnectionHours;
+            case 4: return giftGivingHours;
+            case 5: return newspaperHours;
+            default: throw new IndexOutOfBoundsException("activity " + activity);
+        }
+    }
+
+    public float totalHours() {
+        return readingHours + prayerHours + bodybuildingHours + friendConnectionHours + giftGivingHours + newspaperHours;
+    }
+}
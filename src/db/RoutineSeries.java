@@ -0,0 +1,171 @@
+package db;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// One user's routine_tracker rows held in memory column by column, oldest first: ids,
+// dates as epoch days, one float[] per activity and remarks. Dates are unique per user
+// (user_date_unique), so a date range maps to an index range found by binary search,
+// and a slice is a view over the arrays rather than a copy. Entries are patched in
+// place; today's entry, the usual insert, lands at the end without shifting anything.
+// Not thread-safe.
+public class RoutineSeries {
+    private static final int ACTIVITIES = RoutineEntry.ACTIVITIES;
+
+    private final int userId;
+    private int size;
+    private int[] ids;
+    private int[] epochDays;
+    private final float[][] hours = new float[ACTIVITIES][];
+    private String[] remarks;
+
+    // history in any order, e.g. as RoutineDao.findByUser returns it
+    public RoutineSeries(int userId, List<RoutineEntry> history) {
+        this.userId = userId;
+        List<RoutineEntry> sorted = new ArrayList<>(history);
+        sorted.sort(Comparator.comparing(RoutineEntry::date));
+        int capacity = Math.max(16, sorted.size());
+        ids = new int[capacity];
+        epochDays = new int[capacity];
+        for (int a = 0; a < ACTIVITIES; a++) {
+            hours[a] = new float[capacity];
+        }
+        remarks = new String[capacity];
+        for (RoutineEntry entry : sorted) {
+            store(size++, entry);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public RoutineEntry get(int index) {
+        return new RoutineEntry(ids[index], userId, LocalDate.ofEpochDay(epochDays[index]),
+                hours[0][index], hours[1][index], hours[2][index], hours[3][index], hours[4][index],
+                hours[5][index], remarks[index]);
+    }
+
+    // Entries dated from..to inclusive, newest first. A live view: read it before the
+    // next change to this series.
+    public List<RoutineEntry> slice(LocalDate from, LocalDate to) {
+        int first = lowerBound(from.toEpochDay());
+        int end = lowerBound(to.toEpochDay() + 1);
+        return view(first, Math.max(first, end));
+    }
+
+    // Every entry, newest first
+    public List<RoutineEntry> all() {
+        return view(0, size);
+    }
+
+    private List<RoutineEntry> view(int first, int end) {
+        int count = end - first;
+        return new AbstractList<>() {
+            @Override
+            public RoutineEntry get(int i) {
+                if (i < 0 || i >= count) throw new IndexOutOfBoundsException("Index " + i + " of " + count);
+                return RoutineSeries.this.get(end - 1 - i);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    // Adds an entry, or replaces the one with its id or its date
+    public void put(RoutineEntry entry) {
+        remove(entry.id());
+        int day = (int) entry.date().toEpochDay();
+        int index = lowerBound(day);
+        if (index < size && epochDays[index] == day) {
+            store(index, entry);
+            return;
+        }
+        if (size == ids.length) grow();
+        int tail = size - index;
+        System.arraycopy(ids, index, ids, index + 1, tail);
+        System.arraycopy(epochDays, index, epochDays, index + 1, tail);
+        for (float[] column : hours) {
+            System.arraycopy(column, index, column, index + 1, tail);
+        }
+        System.arraycopy(remarks, index, remarks, index + 1, tail);
+        size++;
+        store(index, entry);
+    }
+
+    // New values for an entry already held, hours in RoutineEntry.hours order;
+    // returns false if the id is unknown
+    public boolean update(int id, float[] activityHours, String newRemarks) {
+        int index = indexOf(id);
+        if (index < 0) return false;
+        for (int a = 0; a < ACTIVITIES; a++) {
+            hours[a][index] = activityHours[a];
+        }
+        remarks[index] = newRemarks;
+        return true;
+    }
+
+    public boolean remove(int id) {
+        int index = indexOf(id);
+        if (index < 0) return false;
+        int tail = size - index - 1;
+        System.arraycopy(ids, index + 1, ids, index, tail);
+        System.arraycopy(epochDays, index + 1, epochDays, index, tail);
+        for (float[] column : hours) {
+            System.arraycopy(column, index + 1, column, index, tail);
+        }
+        System.arraycopy(remarks, index + 1, remarks, index, tail);
+        remarks[--size] = null;
+        return true;
+    }
+
+    // Index of the entry with this id, or -1. Searched from the newest end, where edits
+    // usually are.
+    public int indexOf(int id) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (ids[i] == id) return i;
+        }
+        return -1;
+    }
+
+    // First index whose day is >= epochDay
+    private int lowerBound(long epochDay) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void store(int index, RoutineEntry entry) {
+        ids[index] = entry.id();
+        epochDays[index] = (int) entry.date().toEpochDay();
+        for (int a = 0; a < ACTIVITIES; a++) {
+            hours[a][index] = entry.hours(a);
+        }
+        remarks[index] = entry.remarks();
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        for (int a = 0; a < ACTIVITIES; a++) {
+            hours[a] = Arrays.copyOf(hours[a], capacity);
+        }
+        remarks = Arrays.copyOf(remarks, capacity);
+    }
+}
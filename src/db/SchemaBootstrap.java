@@ -0,0 +1,89 @@
+package db;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Creates the portal schema from "sql table.txt" so an embedded database can stand in
+// for MySQL. The file stays written for MySQL; the few constructs H2's MySQL mode
+// rejects are rewritten here, and every CREATE TABLE gets IF NOT EXISTS so running it
+// against an existing database is harmless.
+public final class SchemaBootstrap {
+    private static final Pattern CREATE_TABLE =
+            Pattern.compile("^CREATE\\s+TABLE\\s+(?!IF\\s+NOT\\s+EXISTS)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SKIPPED =
+            Pattern.compile("^(CREATE\\s+DATABASE|USE)\\b", Pattern.CASE_INSENSITIVE);
+    // An index definition line inside CREATE TABLE, e.g. "INDEX idx (name(20), city)"
+    private static final Pattern INDEX_LINE =
+            Pattern.compile("^\\s*(UNIQUE\\s+)?(INDEX|KEY)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PREFIX_LENGTH = Pattern.compile("(\\w+)\\s*\\(\\s*\\d+\\s*\\)");
+
+    private SchemaBootstrap() {
+    }
+
+    // Runs every statement in schemaFile; returns how many were executed
+    public static int apply(Connection conn, Path schemaFile, boolean embedded) throws SQLException, IOException {
+        String script = new String(Files.readAllBytes(schemaFile), StandardCharsets.UTF_8);
+        int executed = 0;
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : split(script)) {
+                if (SKIPPED.matcher(sql).find()) continue;
+                sql = CREATE_TABLE.matcher(sql).replaceFirst("CREATE TABLE IF NOT EXISTS ");
+                if (embedded) sql = stripPrefixLengths(sql);
+                stmt.execute(sql);
+                executed++;
+            }
+        }
+        return executed;
+    }
+
+    // Splits on ';' outside quotes, dropping "--" line comments and empty statements
+    static List<String> split(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        char quote = 0;
+        for (int i = 0; i < script.length(); i++) {
+            char c = script.charAt(i);
+            if (quote != 0) {
+                current.append(c);
+                if (c == quote) quote = 0;
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+                current.append(c);
+            } else if (c == '-' && i + 1 < script.length() && script.charAt(i + 1) == '-') {
+                while (i < script.length() && script.charAt(i) != '\n') i++;
+                current.append('\n');
+            } else if (c == ';') {
+                addIfPresent(statements, current);
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        addIfPresent(statements, current);
+        return statements;
+    }
+
+    private static void addIfPresent(List<String> statements, StringBuilder sql) {
+        String trimmed = sql.toString().trim();
+        if (!trimmed.isEmpty()) statements.add(trimmed);
+    }
+
+    // H2 has no prefix indexes: "INDEX idx (name(20), city)" becomes "INDEX idx (name, city)"
+    static String stripPrefixLengths(String sql) {
+        String[] lines = sql.split("\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            if (INDEX_LINE.matcher(lines[i]).find()) {
+                lines[i] = PREFIX_LENGTH.matcher(lines[i]).replaceAll("$1");
+            }
+        }
+        return String.join("\n", lines);
+    }
+}
@@ -0,0 +1,78 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static db.Migration.createIndex;
+
+// Applies the numbered migrations below on startup and records each one in
+// schema_version. "sql table.txt" stays the version 0 schema; anything added after
+// it belongs here, with a new version number, never as an edit to an old entry.
+public final class SchemaMigrator {
+    private static final String CREATE_VERSION_TABLE =
+            "CREATE TABLE IF NOT EXISTS schema_version (" +
+            "version INT PRIMARY KEY, " +
+            "description VARCHAR(255) NOT NULL, " +
+            "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+    private static final String SELECT_VERSION = "SELECT COALESCE(MAX(version), 0) FROM schema_version";
+    private static final String INSERT_VERSION = "INSERT INTO schema_version (version, description) VALUES (?, ?)";
+
+    static final List<Migration> MIGRATIONS = List.of(
+            // Dashboard assignments tab: WHERE user_id = ? ORDER BY deadline DESC
+            new Migration(1, "Per-user index on assignments",
+                    createIndex("assignments", "idx_assignments_user_deadline", "user_id", "deadline")),
+            // Library tab reads every book ordered by title; covering lets it scan the index instead of sorting
+            new Migration(2, "Covering title index on library",
+                    createIndex("library", "idx_library_title",
+                            "title", "author", "isbn", "published_year", "available_copies")),
+            // User search by name, city and gender prefix. These were added to the version 0
+            // CREATE TABLE after databases had already been created from it.
+            new Migration(3, "Prefix indexes on users for the user search",
+                    createIndex("users", "idx_users_name", "name(20)"),
+                    createIndex("users", "idx_users_city_gender", "city(20)", "gender"))
+    );
+
+    private SchemaMigrator() {
+    }
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+    }
+
+    public static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_VERSION_TABLE);
+            try (ResultSet rs = stmt.executeQuery(SELECT_VERSION)) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    // Applies every migration newer than the recorded version; returns how many ran
+    public static int migrate(Connection conn) throws SQLException {
+        int current = currentVersion(conn);
+        int applied = 0;
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version() <= current) continue;
+            // MySQL commits DDL implicitly, so a failure part way leaves earlier steps in
+            // place; they are idempotent and simply re-run on the next start
+            for (Migration.Step step : migration.steps()) {
+                step.apply(conn);
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_VERSION)) {
+                stmt.setInt(1, migration.version());
+                stmt.setString(2, migration.description());
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                // Another client recorded it first
+                if (currentVersion(conn) < migration.version()) throw e;
+            }
+            applied++;
+        }
+        return applied;
+    }
+}
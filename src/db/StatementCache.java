@@ -0,0 +1,125 @@
+package db;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Per physical connection LRU of prepared statements keyed by SQL text. Callers get a
+// proxy whose close() only resets the statement, so the next prepareStatement() with the
+// same SQL on the same pooled connection skips the parse/prepare round trip.
+// A connection is used by one thread at a time, so no locking is needed.
+class StatementCache {
+    private final Connection physical;
+    private final int capacity;
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    StatementCache(Connection physical, int capacity) {
+        this.physical = physical;
+        this.capacity = capacity;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    PreparedStatement prepare(String sql, Connection owner) throws SQLException {
+        if (capacity <= 0) {
+            return physical.prepareStatement(sql);
+        }
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && cached.inUse) {
+            // Same SQL already open on this connection (e.g. nested use); don't share it
+            return physical.prepareStatement(sql);
+        }
+        if (cached == null) {
+            cached = new CachedStatement(physical.prepareStatement(sql));
+            statements.put(sql, cached);
+            evictOverflow();
+        }
+        cached.inUse = true;
+        return cached.proxy(owner);
+    }
+
+    void closeAll() {
+        for (CachedStatement cached : statements.values()) {
+            closeQuietly(cached.statement);
+        }
+        statements.clear();
+    }
+
+    private void evictOverflow() {
+        var it = statements.entrySet().iterator();
+        while (statements.size() > capacity && it.hasNext()) {
+            Map.Entry<String, CachedStatement> eldest = it.next();
+            if (!eldest.getValue().inUse) {
+                closeQuietly(eldest.getValue().statement);
+                it.remove();
+            }
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private static final class CachedStatement {
+        final PreparedStatement statement;
+        boolean inUse;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        PreparedStatement proxy(Connection owner) {
+            boolean[] closed = {false};
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                if (!closed[0]) {
+                                    closed[0] = true;
+                                    release();
+                                }
+                                return null;
+                            case "isClosed":
+                                return closed[0] || statement.isClosed();
+                            case "getConnection":
+                                return owner;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                if (closed[0] && !"toString".equals(method.getName())) {
+                                    throw new SQLException("Statement is closed");
+                                }
+                        }
+                        try {
+                            return method.invoke(statement, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        // Returns the statement to a clean state for its next user
+        private void release() {
+            try {
+                ResultSet open = statement.getResultSet();
+                if (open != null) open.close();
+                statement.clearParameters();
+                statement.clearBatch();
+                inUse = false;
+            } catch (SQLException e) {
+                // Leave it marked in use so it is never handed out again; closed with the connection
+            }
+        }
+    }
+}
@@ -0,0 +1,548 @@
+package db;
+
+import auth.PasswordHasher;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fills every portal table with seeded synthetic data for load and benchmark runs.
+// Student i gets the same rows for a given seed and end date whatever the thread
+// count, so runs are repeatable and a bigger dataset only adds students. Each student
+// has at most one routine_tracker row and one attendance row per date, so
+// user_date_unique and unique_user_date hold by construction.
+//
+//   java -cp out:<driver.jar> db.SyntheticDataGenerator --students=100000 --days=365 --seed=42
+//
+// Students are split into chunks that worker threads write on their own pooled
+// connections, one JDBC batch per table, committing after every executeBatch.
+public final class SyntheticDataGenerator {
+    // Every generated account signs in with this password
+    public static final String PASSWORD = "password";
+
+    private static final int STUDENTS_PER_CHUNK = 250;
+    private static final int BOOKS_PER_CHUNK = 10_000;
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, name, email, username, password, city, gender, phone, address) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ROUTINE =
+            "INSERT INTO routine_tracker (user_id, date, reading_hours, prayer_hours, bodybuilding_hours, " +
+            "friend_connection_hours, gift_giving_hours, newspaper_hours, remarks) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_LOG =
+            "INSERT INTO routine_logs (user_id, task, short_term_goal, long_term_goal, reflection, log_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ASSIGNMENT =
+            "INSERT INTO assignments (user_id, title, description, deadline, submitted) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_ATTENDANCE =
+            "INSERT INTO attendance (user_id, attendance_date, status, remarks) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_RESULT =
+            "INSERT INTO results (user_id, course_name, exam_date, grade) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_CSE =
+            "INSERT INTO cse_student_data (user_id, subject, grade) VALUES (?, ?, ?)";
+    private static final String INSERT_BOOK =
+            "INSERT INTO library (title, author, isbn, published_year, available_copies) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_NOTICE = "INSERT INTO notices (title, content) VALUES (?, ?)";
+
+    // Independent random streams, so changing how one table is generated leaves the others alone
+    private static final long USER = 1, ROUTINE = 2, LOG = 3, ASSIGNMENT = 4, ATTENDANCE = 5,
+            RESULT = 6, CSE = 7, BOOK = 8, NOTICE = 9;
+
+    private static final String[] FIRST = {"Amina", "Rafi", "Nadia", "Tanvir", "Sadia", "Imran", "Farhana",
+            "Karim", "Laila", "Hasan", "Mithila", "Arif", "Ruma", "Sohel", "Tania", "Zahid", "Nusrat", "Fahim",
+            "Jannat", "Rakib", "Sumaiya", "Mahmud", "Priya", "Anik"};
+    private static final String[] LAST = {"Rahman", "Hossain", "Ahmed", "Islam", "Chowdhury", "Khan",
+            "Akter", "Uddin", "Sarker", "Begum", "Alam", "Das", "Roy", "Miah", "Siddique", "Haque"};
+    // Weighted towards the large cities, as student populations are
+    private static final String[] CITIES = {"Dhaka", "Dhaka", "Dhaka", "Dhaka", "Chittagong", "Chittagong",
+            "Sylhet", "Khulna", "Rajshahi", "Barisal", "Rangpur", "Mymensingh", "Comilla", "Gazipur"};
+    private static final String[] STREETS = {"Lake Road", "Station Road", "College Street", "Mirpur Road",
+            "Green Road", "Park Avenue", "New Market Lane", "Hospital Road"};
+    private static final String[] REMARKS = {"Felt productive, finished the reading goal early.",
+            "Tired after classes.", "Skipped the gym, back tomorrow.", "Good day overall.",
+            "Exam week, mostly studying.", "Visited family in the evening.", "Slept late, slow morning.",
+            "Helped a friend with the lab report."};
+    private static final String[] TASKS = {"Read two chapters", "Revise lecture notes", "Finish lab report",
+            "Practice problems", "Morning run", "Group study", "Write journal"};
+    private static final String[] SHORT_GOALS = {"Finish this week's assignments", "Wake up before 6",
+            "Read 30 pages a day", "Submit the project draft"};
+    private static final String[] LONG_GOALS = {"Graduate with honours", "Get an internship",
+            "Run a half marathon", "Publish a paper", "Learn a new language"};
+    private static final String[] COURSES = {"Calculus I", "Calculus II", "Physics I", "Physics II",
+            "Chemistry", "English Composition", "Linear Algebra", "Statistics", "Economics",
+            "Bangladesh Studies", "Discrete Mathematics", "Digital Logic", "Programming Fundamentals",
+            "Technical Writing"};
+    private static final String[] CSE_SUBJECTS = {"Data Structures", "Algorithms", "Operating Systems",
+            "Database Systems", "Computer Networks", "Compilers", "Computer Architecture", "Software Engineering",
+            "Artificial Intelligence", "Computer Graphics", "Theory of Computation"};
+    // Best first; a student's ability shifts where on this scale their grades land
+    private static final String[] GRADES = {"A+", "A", "A-", "B+", "B", "B-", "C+", "C", "D", "F"};
+    private static final String[] WORDS = {"Algorithms", "Data", "Systems", "Modern", "Introduction",
+            "Networks", "Theory", "Practical", "Design", "Databases", "Compilers", "Advanced", "Learning",
+            "Operating", "Structures", "Graphics", "Security", "Applied", "Discrete", "Mathematics"};
+    private static final String[] NOTICE_TITLES = {"Exam schedule published", "Library hours extended",
+            "Class cancelled", "Scholarship applications open", "Campus maintenance", "Sports week",
+            "Fee payment deadline", "Guest lecture"};
+
+    public record Options(long seed, int firstStudent, int students, int days, LocalDate endDate,
+                          int books, int notices, int threads, int batchSize) {
+
+        // A year of history ending today, one book per ten students, on every core
+        public static Options defaults(int firstStudent, int students) {
+            return new Options(42, firstStudent, students, 365, LocalDate.now(), Math.max(100, students / 10),
+                    200, Runtime.getRuntime().availableProcessors(), 1000);
+        }
+
+        public Options {
+            if (firstStudent < 0 || students < 0 || days < 1 || books < 0 || notices < 0) {
+                throw new IllegalArgumentException("Counts must not be negative and days must be positive");
+            }
+            if (threads < 1 || batchSize < 1) {
+                throw new IllegalArgumentException("threads and batchSize must be positive");
+            }
+        }
+    }
+
+    public record Report(Map<String, Long> rowsByTable, long elapsedMillis) {
+        public long totalRows() {
+            return rowsByTable.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            rowsByTable.forEach((table, rows) -> sb.append(String.format("%-18s %,12d%n", table, rows)));
+            double seconds = Math.max(elapsedMillis, 1) / 1000.0;
+            sb.append(String.format("%,d rows in %.1f s (%,.0f rows/s)", totalRows(), seconds, totalRows() / seconds));
+            return sb.toString();
+        }
+    }
+
+    private final Options options;
+    private final LocalDate firstDay;
+    private final Map<String, LongAdder> rows = new LinkedHashMap<>();
+    private String passwordHash;
+    private long firstId;
+    private long firstBook;
+
+    private SyntheticDataGenerator(Options options) {
+        this.options = options;
+        this.firstDay = options.endDate().minusDays(options.days() - 1);
+        for (String table : new String[]{"users", "routine_tracker", "routine_logs", "assignments", "attendance",
+                "results", "cse_student_data", "library", "notices"}) {
+            rows.put(table, new LongAdder());
+        }
+    }
+
+    // Adds options.students() students numbered from options.firstStudent() with all of
+    // their rows, plus options.books() books numbered after those already in library and
+    // options.notices() notices. Usernames are "student<n>", so the caller picks
+    // firstStudent to avoid ones already present.
+    public static Report generate(Options options) throws SQLException, InterruptedException {
+        return new SyntheticDataGenerator(options).run();
+    }
+
+    public static String username(long student) {
+        return "student" + student;
+    }
+
+    private Report run() throws SQLException, InterruptedException {
+        long start = System.nanoTime();
+        // Hashed once; BCrypt per row would dominate the run
+        passwordHash = PasswordHasher.hashOnCurrentThread(PASSWORD);
+        // Explicit ids let children reference a student without reading the id back
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM users")) {
+                rs.next();
+                firstId = rs.getLong(1) + 1;
+            }
+            // Books are numbered after the ones already there, as students are from
+            // firstStudent, so a second run adds new titles and ISBNs rather than repeats
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM library")) {
+                rs.next();
+                firstBook = rs.getLong(1);
+            }
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        long end = (long) options.firstStudent() + options.students();
+        for (long from = options.firstStudent(); from < end; from += STUDENTS_PER_CHUNK) {
+            long chunkStart = from;
+            long chunkEnd = Math.min(end, from + STUDENTS_PER_CHUNK);
+            tasks.add(() -> writeStudents(chunkStart, chunkEnd));
+        }
+        long lastBook = firstBook + options.books();
+        for (long from = firstBook; from < lastBook; from += BOOKS_PER_CHUNK) {
+            long chunkStart = from;
+            long chunkEnd = Math.min(lastBook, from + BOOKS_PER_CHUNK);
+            tasks.add(() -> writeBooks(chunkStart, chunkEnd));
+        }
+        if (options.notices() > 0) tasks.add(this::writeNotices);
+
+        // Each worker holds a pooled connection for a whole task, so never run more than the pool allows
+        int threads = Math.min(options.threads(), DBConnection.getConfig().maxPoolSize());
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "data-generator");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            for (Future<Void> future : workers.invokeAll(tasks)) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof SQLException sql) throw sql;
+                    throw new IllegalStateException("Data generation failed", e.getCause());
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        if (DBConnection.getConfig().isEmbedded() && options.students() > 0) {
+            // H2 does not move the identity past explicit ids the way MySQL's AUTO_INCREMENT does
+            try (Connection conn = DBConnection.getConnection(); Statement stmt = conn.createStatement()) {
+                long nextId = firstId + options.students();
+                stmt.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + nextId);
+            }
+        }
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        rows.forEach((table, adder) -> counts.put(table, adder.sum()));
+        return new Report(counts, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Void writeStudents(long from, long to) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Batch users = new Batch(conn, INSERT_USER, "users");
+                 Batch routines = new Batch(conn, INSERT_ROUTINE, "routine_tracker");
+                 Batch logs = new Batch(conn, INSERT_LOG, "routine_logs");
+                 Batch assignments = new Batch(conn, INSERT_ASSIGNMENT, "assignments");
+                 Batch attendance = new Batch(conn, INSERT_ATTENDANCE, "attendance");
+                 Batch results = new Batch(conn, INSERT_RESULT, "results");
+                 Batch cse = new Batch(conn, INSERT_CSE, "cse_student_data")) {
+                // The chunk's users go in before any row that references them
+                for (long i = from; i < to; i++) {
+                    user(users, i);
+                }
+                users.flush();
+                for (long i = from; i < to; i++) {
+                    long id = firstId + (i - options.firstStudent());
+                    routine(routines, logs, id, i);
+                    assignments(assignments, id, i);
+                    attendance(attendance, id, i);
+                    results(results, id, i);
+                    cse(cse, id, i);
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return null;
+    }
+
+    private void user(Batch batch, long i) throws SQLException {
+        SplittableRandom r = random(USER, i);
+        PreparedStatement stmt = batch.stmt;
+        stmt.setLong(1, firstId + (i - options.firstStudent()));
+        stmt.setString(2, pick(r, FIRST) + " " + pick(r, LAST));
+        stmt.setString(3, username(i) + "@example.com");
+        stmt.setString(4, username(i));
+        stmt.setString(5, passwordHash);
+        stmt.setString(6, pick(r, CITIES));
+        int gender = r.nextInt(100);
+        stmt.setString(7, gender < 49 ? "Male" : gender < 97 ? "Female" : "Other");
+        stmt.setString(8, String.format("01%09d", i % 1_000_000_000L));
+        stmt.setString(9, (1 + r.nextInt(200)) + " " + pick(r, STREETS) + ", " + pick(r, CITIES));
+        batch.add();
+    }
+
+    // Daily routine rows. Each student has a habit profile: how often they log, and a
+    // typical number of hours per activity that a given day scatters around.
+    private void routine(Batch routines, Batch logs, long id, long i) throws SQLException {
+        SplittableRandom r = random(ROUTINE, i);
+        SplittableRandom logRandom = random(LOG, i);
+        double consistency = 0.4 + r.nextDouble() * 0.58;
+        double[] typical = {
+                0.5 + r.nextDouble() * 2.5,  // reading
+                0.5 + r.nextDouble() * 1.5,  // prayer
+                r.nextDouble() * 1.5,        // bodybuilding
+                0.5 + r.nextDouble() * 2.0,  // friends
+                r.nextDouble() * 0.5,        // gift giving
+                r.nextDouble()               // newspaper
+        };
+        for (LocalDate day = enrolled(r); !day.isAfter(options.endDate()); day = day.plusDays(1)) {
+            if (r.nextDouble() >= consistency) continue;
+            boolean weekend = day.getDayOfWeek() == DayOfWeek.FRIDAY || day.getDayOfWeek() == DayOfWeek.SATURDAY;
+            PreparedStatement stmt = routines.stmt;
+            stmt.setLong(1, id);
+            stmt.setDate(2, Date.valueOf(day));
+            for (int a = 0; a < typical.length; a++) {
+                double mean = typical[a] + (weekend && a == 3 ? 1.0 : 0);
+                stmt.setFloat(3 + a, hours(mean + r.nextGaussian() * mean * 0.5));
+            }
+            stmt.setString(9, remarks(r));
+            routines.add();
+
+            if (logRandom.nextInt(10) == 0) {
+                PreparedStatement log = logs.stmt;
+                log.setLong(1, id);
+                log.setString(2, pick(logRandom, TASKS));
+                log.setString(3, pick(logRandom, SHORT_GOALS));
+                log.setString(4, pick(logRandom, LONG_GOALS));
+                log.setString(5, pick(logRandom, REMARKS));
+                log.setDate(6, Date.valueOf(day));
+                logs.add();
+            }
+        }
+    }
+
+    // Titles are "Assignment 1".."Assignment n" per student, deadlines spread over the
+    // period and the month after it; past deadlines are mostly submitted
+    private void assignments(Batch batch, long id, long i) throws SQLException {
+        SplittableRandom r = random(ASSIGNMENT, i);
+        int count = 4 + r.nextInt(9);
+        for (int n = 1; n <= count; n++) {
+            LocalDate deadline = firstDay.plusDays(r.nextInt(options.days() + 30));
+            boolean due = !deadline.isAfter(options.endDate());
+            PreparedStatement stmt = batch.stmt;
+            stmt.setLong(1, id);
+            stmt.setString(2, "Assignment " + n);
+            stmt.setString(3, pick(r, COURSES) + ": solve the exercises in chapter " + (1 + r.nextInt(20)));
+            stmt.setDate(4, Date.valueOf(deadline));
+            stmt.setBoolean(5, r.nextInt(100) < (due ? 85 : 15));
+            batch.add();
+        }
+    }
+
+    // One row per weekday (Sunday to Thursday) from enrolment on
+    private void attendance(Batch batch, long id, long i) throws SQLException {
+        SplittableRandom r = random(ATTENDANCE, i);
+        double presentRate = 0.75 + r.nextDouble() * 0.23;
+        for (LocalDate day = enrolled(r); !day.isAfter(options.endDate()); day = day.plusDays(1)) {
+            DayOfWeek dow = day.getDayOfWeek();
+            if (dow == DayOfWeek.FRIDAY || dow == DayOfWeek.SATURDAY) continue;
+            PreparedStatement stmt = batch.stmt;
+            stmt.setLong(1, id);
+            stmt.setDate(2, Date.valueOf(day));
+            if (r.nextDouble() < presentRate) {
+                stmt.setString(3, "Present");
+                stmt.setString(4, null);
+            } else if (r.nextInt(3) == 0) {
+                stmt.setString(3, "Leave");
+                stmt.setString(4, r.nextBoolean() ? "Medical" : "Family");
+            } else {
+                stmt.setString(3, "Absent");
+                stmt.setString(4, null);
+            }
+            batch.add();
+        }
+    }
+
+    private void results(Batch batch, long id, long i) throws SQLException {
+        SplittableRandom r = random(RESULT, i);
+        double ability = r.nextDouble();
+        for (String course : distinct(r, COURSES, 6 + r.nextInt(5))) {
+            PreparedStatement stmt = batch.stmt;
+            stmt.setLong(1, id);
+            stmt.setString(2, course);
+            stmt.setDate(3, Date.valueOf(firstDay.plusDays(r.nextInt(options.days()))));
+            stmt.setString(4, grade(r, ability));
+            batch.add();
+        }
+    }
+
+    // About a third of students are in CSE
+    private void cse(Batch batch, long id, long i) throws SQLException {
+        SplittableRandom r = random(CSE, i);
+        if (r.nextInt(10) >= 3) return;
+        double ability = r.nextDouble();
+        for (String subject : distinct(r, CSE_SUBJECTS, 5 + r.nextInt(4))) {
+            PreparedStatement stmt = batch.stmt;
+            stmt.setLong(1, id);
+            stmt.setString(2, subject);
+            stmt.setString(3, grade(r, ability));
+            batch.add();
+        }
+    }
+
+    private Void writeBooks(long from, long to) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Batch batch = new Batch(conn, INSERT_BOOK, "library")) {
+                for (long i = from; i < to; i++) {
+                    SplittableRandom r = random(BOOK, i);
+                    PreparedStatement stmt = batch.stmt;
+                    stmt.setString(1, pick(r, WORDS) + " " + pick(r, WORDS) + " " + pick(r, WORDS)
+                            + (r.nextInt(4) == 0 ? " Vol. " + (2 + r.nextInt(4)) : ""));
+                    stmt.setString(2, pick(r, FIRST) + " " + pick(r, LAST));
+                    stmt.setString(3, String.format("978-%010d", i));
+                    // Skewed towards recent editions
+                    stmt.setInt(4, 2024 - (int) Math.min(74, Math.abs(r.nextGaussian()) * 15));
+                    stmt.setInt(5, r.nextInt(10));
+                    batch.add();
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return null;
+    }
+
+    private Void writeNotices() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Batch batch = new Batch(conn, INSERT_NOTICE, "notices")) {
+                for (int i = 0; i < options.notices(); i++) {
+                    SplittableRandom r = random(NOTICE, i);
+                    String title = pick(r, NOTICE_TITLES);
+                    batch.stmt.setString(1, title);
+                    batch.stmt.setString(2, title + ". Please check the department board for details. Ref #" + (i + 1));
+                    batch.add();
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return null;
+    }
+
+    // Some students only joined part way through the period
+    private LocalDate enrolled(SplittableRandom r) {
+        return r.nextInt(10) < 7 ? firstDay : firstDay.plusDays(r.nextInt(Math.max(1, options.days() / 3)));
+    }
+
+    private SplittableRandom random(long stream, long index) {
+        return new SplittableRandom(options.seed() * 0x9E3779B97F4A7C15L + stream * 0xC2B2AE3D27D4EB4FL + index);
+    }
+
+    // Clamped to a day and rounded to the quarter hour people actually write down
+    private static float hours(double value) {
+        return Math.round(Math.max(0, Math.min(12, value)) * 4) / 4f;
+    }
+
+    // Mostly blank; occasionally a few sentences, so row heights vary in the list view
+    private static String remarks(SplittableRandom r) {
+        int roll = r.nextInt(100);
+        if (roll < 80) return "";
+        if (roll < 97) return pick(r, REMARKS);
+        return pick(r, REMARKS) + " " + pick(r, REMARKS) + " " + pick(r, REMARKS);
+    }
+
+    private static String grade(SplittableRandom r, double ability) {
+        double position = (1 - ability) * (GRADES.length - 1) + r.nextGaussian() * 1.5;
+        return GRADES[(int) Math.max(0, Math.min(GRADES.length - 1, Math.round(position)))];
+    }
+
+    private static String pick(SplittableRandom r, String[] values) {
+        return values[r.nextInt(values.length)];
+    }
+
+    // count distinct values via a partial Fisher-Yates shuffle
+    private static List<String> distinct(SplittableRandom r, String[] values, int count) {
+        String[] copy = values.clone();
+        int n = Math.min(count, copy.length);
+        for (int i = 0; i < n; i++) {
+            int j = i + r.nextInt(copy.length - i);
+            String tmp = copy[i];
+            copy[i] = copy[j];
+            copy[j] = tmp;
+        }
+        return List.of(copy).subList(0, n);
+    }
+
+    // One prepared INSERT with its pending batch; flushing executes and commits
+    private final class Batch implements AutoCloseable {
+        final PreparedStatement stmt;
+        private final Connection conn;
+        private final LongAdder written;
+        private int pending;
+
+        Batch(Connection conn, String sql, String table) throws SQLException {
+            this.conn = conn;
+            this.stmt = conn.prepareStatement(sql);
+            this.written = rows.get(table);
+        }
+
+        void add() throws SQLException {
+            stmt.addBatch();
+            if (++pending == options.batchSize()) flush();
+        }
+
+        void flush() throws SQLException {
+            if (pending == 0) return;
+            stmt.executeBatch();
+            conn.commit();
+            written.add(pending);
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+            } finally {
+                stmt.close();
+            }
+        }
+    }
+
+    //   --students=N --first=N (default: after the existing users) --days=365 --end=YYYY-MM-DD
+    //   --seed=42 --books=N --notices=200 --threads=N --batch=1000
+    public static void main(String[] args) throws SQLException, InterruptedException {
+        Map<String, String> opts = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) throw new IllegalArgumentException("Expected --key=value, got " + arg);
+            opts.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        // Large batches are expected to be slow; keep them out of the slow-query log
+        if (System.getProperty("portal.db.slowQueryMillis") == null) {
+            System.setProperty("portal.db.slowQueryMillis", "60000");
+        }
+
+        int students = Integer.parseInt(opts.getOrDefault("students", "1000"));
+        int first;
+        if (opts.containsKey("first")) {
+            first = Integer.parseInt(opts.get("first"));
+        } else {
+            try (Connection conn = DBConnection.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users")) {
+                rs.next();
+                first = rs.getInt(1);
+            }
+        }
+        Options defaults = Options.defaults(first, students);
+        Options options = new Options(
+                Long.parseLong(opts.getOrDefault("seed", String.valueOf(defaults.seed()))),
+                first, students,
+                Integer.parseInt(opts.getOrDefault("days", String.valueOf(defaults.days()))),
+                opts.containsKey("end") ? LocalDate.parse(opts.get("end")) : defaults.endDate(),
+                Integer.parseInt(opts.getOrDefault("books", String.valueOf(defaults.books()))),
+                Integer.parseInt(opts.getOrDefault("notices", String.valueOf(defaults.notices()))),
+                Integer.parseInt(opts.getOrDefault("threads", String.valueOf(defaults.threads()))),
+                Integer.parseInt(opts.getOrDefault("batch", String.valueOf(defaults.batchSize()))));
+
+        System.out.println("Generating " + options + " on " + DBConnection.getConfig());
+        System.out.println(generate(options));
+    }
+}
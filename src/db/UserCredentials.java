@@ -0,0 +1,5 @@
+package db;
+
+// What sign-in needs for one user: identity, profile picture and the stored BCrypt hash
+public record UserCredentials(int id, String name, String email, String profilePicture, String passwordHash) {
+}
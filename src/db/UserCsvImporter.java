@@ -0,0 +1,290 @@
+package db;
+
+import auth.PasswordHasher;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+
+// Imports users from a CSV file with a header row. Rows are streamed and validated,
+// passwords are hashed in parallel one chunk at a time, and each chunk is written with
+// a single JDBC batch inside its own transaction. Rows that fail are reported by line.
+public class UserCsvImporter {
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private static final String[] REQUIRED = {"name", "email", "username", "password"};
+    private static final String[] OPTIONAL = {"city", "gender", "phone", "address", "profile_picture"};
+    private static final Set<String> GENDERS = Set.of("Male", "Female", "Other");
+
+    private final int chunkSize;
+
+    public UserCsvImporter() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public UserCsvImporter(int chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize must be positive");
+        this.chunkSize = chunkSize;
+    }
+
+    public record RowError(int line, String message) {
+        @Override
+        public String toString() {
+            return "Line " + line + ": " + message;
+        }
+    }
+
+    public record ImportReport(int rowsRead, int imported, List<RowError> errors) {
+    }
+
+    // progress receives the number of rows processed so far, from the importing thread
+    public ImportReport importFile(Path csv, IntConsumer progress)
+            throws IOException, SQLException, InterruptedException {
+        List<RowError> errors = new ArrayList<>();
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        int rowsRead = 0;
+        int imported = 0;
+
+        ForkJoinPool hashPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+             Connection conn = DBConnection.getConnection()) {
+            CsvReader csvReader = new CsvReader(reader);
+            List<String> header = csvReader.next();
+            if (header == null) {
+                return new ImportReport(0, 0, errors);
+            }
+            Map<String, Integer> columns = mapHeader(header);
+
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(UserDao.INSERT)) {
+                List<UserRow> chunk = new ArrayList<>(chunkSize);
+                List<String> fields;
+                while ((fields = csvReader.next()) != null) {
+                    rowsRead++;
+                    UserRow row = parse(csvReader.lineNumber(), fields, columns, seenUsernames, seenEmails, errors);
+                    if (row != null) chunk.add(row);
+                    if (chunk.size() == chunkSize) {
+                        imported += writeChunk(conn, stmt, chunk, hashPool, errors);
+                        chunk.clear();
+                        progress.accept(rowsRead);
+                    }
+                }
+                imported += writeChunk(conn, stmt, chunk, hashPool, errors);
+                progress.accept(rowsRead);
+            }
+        } finally {
+            hashPool.shutdownNow();
+        }
+
+        errors.sort(Comparator.comparingInt(RowError::line));
+        return new ImportReport(rowsRead, imported, errors);
+    }
+
+    private static Map<String, Integer> mapHeader(List<String> header) throws IOException {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : REQUIRED) {
+            if (!columns.containsKey(required)) {
+                throw new IOException("CSV header is missing the '" + required + "' column");
+            }
+        }
+        return columns;
+    }
+
+    private static UserRow parse(int line, List<String> fields, Map<String, Integer> columns,
+                                 Set<String> seenUsernames, Set<String> seenEmails, List<RowError> errors) {
+        Map<String, String> values = new HashMap<>();
+        for (String column : REQUIRED) values.put(column, field(fields, columns, column));
+        for (String column : OPTIONAL) values.put(column, field(fields, columns, column));
+
+        for (String column : REQUIRED) {
+            if (values.get(column) == null) {
+                errors.add(new RowError(line, "Missing " + column));
+                return null;
+            }
+        }
+        String error = validate(values);
+        if (error != null) {
+            errors.add(new RowError(line, error));
+            return null;
+        }
+        if (!seenUsernames.add(values.get("username").toLowerCase(Locale.ROOT))) {
+            errors.add(new RowError(line, "Duplicate username in file: " + values.get("username")));
+            return null;
+        }
+        if (!seenEmails.add(values.get("email").toLowerCase(Locale.ROOT))) {
+            errors.add(new RowError(line, "Duplicate email in file: " + values.get("email")));
+            return null;
+        }
+        return new UserRow(line, values.get("name"), values.get("email"), values.get("username"),
+                values.get("password"), values.get("city"), values.get("gender"), values.get("phone"),
+                values.get("address"), values.get("profile_picture"));
+    }
+
+    // Mirrors the column limits in the users table
+    private static String validate(Map<String, String> v) {
+        if (v.get("name").length() > 100) return "Name longer than 100 characters";
+        if (v.get("email").length() > 100) return "Email longer than 100 characters";
+        if (!v.get("email").matches("[^@\\s]+@[^@\\s]+\\.[^@\\s]+")) return "Invalid email: " + v.get("email");
+        if (v.get("username").length() > 50) return "Username longer than 50 characters";
+        if (v.get("city") != null && v.get("city").length() > 50) return "City longer than 50 characters";
+        if (v.get("phone") != null && v.get("phone").length() > 20) return "Phone longer than 20 characters";
+        if (v.get("profile_picture") != null && v.get("profile_picture").length() > 255) return "Profile picture path too long";
+        if (v.get("gender") != null && !GENDERS.contains(v.get("gender"))) return "Gender must be Male, Female or Other";
+        return null;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) return null;
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private int writeChunk(Connection conn, PreparedStatement stmt, List<UserRow> chunk,
+                           ForkJoinPool hashPool, List<RowError> errors) throws SQLException, InterruptedException {
+        if (chunk.isEmpty()) return 0;
+
+        // BCrypt dominates the cost of an import, so hash the whole chunk across all cores
+        String[] hashes;
+        try {
+            hashes = hashPool.submit(() -> chunk.parallelStream()
+                    .map(row -> PasswordHasher.hashOnCurrentThread(row.password))
+                    .toArray(String[]::new)).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+
+        try {
+            for (int i = 0; i < chunk.size(); i++) {
+                bind(stmt, chunk.get(i), hashes[i]);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            conn.commit();
+            return chunk.size();
+        } catch (BatchUpdateException e) {
+            conn.rollback();
+            stmt.clearBatch();
+            return writeIndividually(conn, stmt, chunk, hashes, errors);
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        }
+    }
+
+    // Fallback when a batch fails (e.g. a username already in the table): retry row by
+    // row so the good rows still go in and each bad one gets its own error
+    private static int writeIndividually(Connection conn, PreparedStatement stmt, List<UserRow> chunk,
+                                         String[] hashes, List<RowError> errors) throws SQLException {
+        int written = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            UserRow row = chunk.get(i);
+            try {
+                bind(stmt, row, hashes[i]);
+                stmt.executeUpdate();
+                conn.commit();
+                written++;
+            } catch (SQLException e) {
+                conn.rollback();
+                errors.add(new RowError(row.line, e.getMessage()));
+            }
+        }
+        return written;
+    }
+
+    private static void bind(PreparedStatement stmt, UserRow row, String hash) throws SQLException {
+        stmt.setString(1, row.name);
+        stmt.setString(2, row.email);
+        stmt.setString(3, row.username);
+        stmt.setString(4, hash);
+        stmt.setString(5, row.city);
+        stmt.setString(6, row.gender);
+        stmt.setString(7, row.phone);
+        stmt.setString(8, row.address);
+        stmt.setString(9, row.profilePicture);
+    }
+
+    private record UserRow(int line, String name, String email, String username, String password,
+                           String city, String gender, String phone, String address, String profilePicture) {
+    }
+
+    // Minimal RFC 4180 reader: quoted fields may contain commas, doubled quotes and newlines
+    static final class CsvReader {
+        private final BufferedReader reader;
+        private int lineNumber;
+        private int recordStartLine;
+
+        CsvReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        // Line on which the most recently returned record started
+        int lineNumber() {
+            return recordStartLine;
+        }
+
+        List<String> next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) return null;
+                lineNumber++;
+            } while (line.isBlank());
+            recordStartLine = lineNumber;
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) break;
+                    // Quoted field continues on the next physical line
+                    String more = reader.readLine();
+                    if (more == null) break;
+                    lineNumber++;
+                    field.append('\n');
+                    line = more;
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i < line.length() && line.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
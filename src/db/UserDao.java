@@ -0,0 +1,150 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Data access for the users table. Every method borrows a pooled connection, so it must
+// run off the EDT (see ui.DbExecutor).
+public class UserDao {
+    private static final String SUMMARY_COLUMNS = "id, name, email, username, city, gender, phone, address";
+
+    private static final String SELECT_CREDENTIALS =
+            "SELECT id, name, email, profile_picture, password FROM users WHERE username = ?";
+    private static final String UPDATE_PASSWORD =
+            "UPDATE users SET password = ? WHERE id = ? AND password = ?";
+    static final String INSERT =
+            "INSERT INTO users (name, email, username, password, city, gender, phone, address, profile_picture) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE =
+            "UPDATE users SET name=?, email=?, username=?, city=?, gender=?, phone=?, address=? WHERE id=?";
+    private static final String DELETE = "DELETE FROM users WHERE id=?";
+    private static final String COUNT = "SELECT COUNT(*) FROM users";
+    private static final String COUNT_FILTERED = "SELECT COUNT(*) FROM (SELECT 1 FROM users WHERE 1 = 1";
+    private static final String SELECT_PAGE = "SELECT " + SUMMARY_COLUMNS + " FROM users WHERE id > ?";
+    private static final String SELECT_BOUNDARY = "SELECT id FROM users WHERE id > ?";
+
+    public Optional<UserCredentials> findCredentials(String username) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_CREDENTIALS)) {
+            stmt.setString(1, username);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return Optional.empty();
+                }
+                return Optional.of(new UserCredentials(rs.getInt(1), rs.getString(2), rs.getString(3),
+                        rs.getString(4), rs.getString(5)));
+            }
+        }
+    }
+
+    // Replaces the hash only if it is still oldHash; returns false if it changed meanwhile
+    public boolean updatePasswordHash(int userId, String newHash, String oldHash) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_PASSWORD)) {
+            stmt.setString(1, newHash);
+            stmt.setInt(2, userId);
+            stmt.setString(3, oldHash);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    public boolean insert(String name, String email, String username, String passwordHash, String city,
+                       String gender, String phone, String address, String profilePicture) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT)) {
+            stmt.setString(1, name);
+            stmt.setString(2, email);
+            stmt.setString(3, username);
+            stmt.setString(4, passwordHash);
+            stmt.setString(5, city);
+            stmt.setString(6, gender);
+            stmt.setString(7, phone);
+            stmt.setString(8, address);
+            stmt.setString(9, profilePicture);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    public boolean update(UserSummary user) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPDATE)) {
+            stmt.setString(1, user.name());
+            stmt.setString(2, user.email());
+            stmt.setString(3, user.username());
+            stmt.setString(4, user.city());
+            stmt.setString(5, user.gender());
+            stmt.setString(6, user.phone());
+            stmt.setString(7, user.address());
+            stmt.setInt(8, user.id());
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    public boolean delete(int userId) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DELETE)) {
+            stmt.setInt(1, userId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    // Number of users matching filter, counting at most limit rows when a filter is set
+    public int count(UserFilter filter, int limit) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            if (filter.isEmpty()) {
+                try (PreparedStatement stmt = conn.prepareStatement(COUNT);
+                     ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(countSql(filter))) {
+                stmt.setInt(filter.bind(stmt, 1), limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+        }
+    }
+
+    // The filtered count: filter's parameters, then the limit
+    static String countSql(UserFilter filter) {
+        return COUNT_FILTERED + filter.whereClause() + " LIMIT ?) matches";
+    }
+
+    // Id of the row offset positions past the first match with id > afterId, walking the
+    // primary key; empty if there are not that many matches
+    public Optional<Integer> findIdAfter(int afterId, int offset, UserFilter filter) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     SELECT_BOUNDARY + filter.whereClause() + " ORDER BY id LIMIT 1 OFFSET ?")) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(filter.bind(stmt, 2), offset);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? Optional.of(rs.getInt(1)) : Optional.empty();
+            }
+        }
+    }
+
+    // Keyset page: up to limit matching users with id > afterId, in id order
+    public List<UserSummary> findPage(int afterId, int limit, UserFilter filter) throws SQLException {
+        List<UserSummary> users = new ArrayList<>(limit);
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     SELECT_PAGE + filter.whereClause() + " ORDER BY id LIMIT ?")) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(filter.bind(stmt, 2), limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    users.add(new UserSummary(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                            rs.getString(5), rs.getString(6), rs.getString(7), rs.getString(8)));
+                }
+            }
+        }
+        return users;
+    }
+}
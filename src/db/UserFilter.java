@@ -0,0 +1,83 @@
+package db;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Search criteria for the users table. Text fields match by prefix (LIKE 'x%') so
+// MySQL can range-scan the name/city prefix indexes and the email/username unique keys.
+public final class UserFilter {
+    public static final UserFilter NONE = new UserFilter(null, null, null, null, null);
+
+    private final String name;
+    private final String email;
+    private final String username;
+    private final String city;
+    private final String gender;
+
+    public UserFilter(String name, String email, String username, String city, String gender) {
+        this.name = normalize(name);
+        this.email = normalize(email);
+        this.username = normalize(username);
+        this.city = normalize(city);
+        this.gender = normalize(gender);
+    }
+
+    public boolean isEmpty() {
+        return name == null && email == null && username == null && city == null && gender == null;
+    }
+
+    // SQL fragment starting with " AND ..." (or empty) to append after an existing WHERE
+    public String whereClause() {
+        StringBuilder sql = new StringBuilder();
+        if (name != null) sql.append(" AND name LIKE ?");
+        if (email != null) sql.append(" AND email LIKE ?");
+        if (username != null) sql.append(" AND username LIKE ?");
+        if (city != null) sql.append(" AND city LIKE ?");
+        if (gender != null) sql.append(" AND gender = ?");
+        return sql.toString();
+    }
+
+    // Binds the parameters of whereClause() starting at index; returns the next free index
+    public int bind(PreparedStatement stmt, int index) throws SQLException {
+        for (String value : parameters()) {
+            stmt.setString(index++, value);
+        }
+        return index;
+    }
+
+    private List<String> parameters() {
+        List<String> params = new ArrayList<>();
+        if (name != null) params.add(prefix(name));
+        if (email != null) params.add(prefix(email));
+        if (username != null) params.add(prefix(username));
+        if (city != null) params.add(prefix(city));
+        if (gender != null) params.add(gender);
+        return params;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserFilter)) return false;
+        UserFilter other = (UserFilter) o;
+        return parameters().equals(other.parameters()) && whereClause().equals(other.whereClause());
+    }
+
+    @Override
+    public int hashCode() {
+        return parameters().hashCode();
+    }
+
+    private static String normalize(String value) {
+        if (value == null) return null;
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    // Escapes LIKE wildcards in user input so they match literally
+    private static String prefix(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
@@ -0,0 +1,6 @@
+package db;
+
+// A users row as shown and edited in the user list; never carries the password hash
+public record UserSummary(int id, String name, String email, String username, String city,
+                          String gender, String phone, String address) {
+}
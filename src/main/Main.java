@@ -1,9 +1,11 @@
 package main;
 
+import auth.PasswordHasher;
 import ui.SignInForm;
 
 public class Main{
     public static void main(String[] args) {
+        PasswordHasher.startCalibration();
         SignInForm signInForm = new SignInForm();
     }
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+package media;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+// Content-addressed store for uploaded pictures. An upload is copied in under the
+// SHA-256 of its bytes, which becomes its key (what users.profile_picture holds), so
+// identical pictures are stored once and a key always means the same image on every
+// machine sharing the store. Thumbnails for THUMBNAIL_SIZES are written at upload time.
+//
+//   <root>/originals/ab/cd/<key>      uploaded bytes, never modified
+//   <root>/thumbnails/<hash>-<n>.png  n x n thumbnails
+//
+//   portal.imageStore   store root (default ~/.student_portal/images)
+public final class ImageStore {
+    // The profile picture at 1x and 2x
+    public static final int[] THUMBNAIL_SIZES = {100, 200};
+    public static final long MAX_UPLOAD_BYTES = 20L * 1024 * 1024;
+
+    private static final Path ROOT = Paths.get(System.getProperty("portal.imageStore",
+            Paths.get(System.getProperty("user.home"), ".student_portal", "images").toString()));
+    private static final Path ORIGINALS = ROOT.resolve("originals");
+    private static final Path THUMBNAILS = ROOT.resolve("thumbnails");
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ImageStore() {
+    }
+
+    // Copies source into the store and returns its key. Re-uploading a picture that is
+    // already stored only returns the existing key. Fails if source is not an image.
+    public static String put(Path source) throws IOException {
+        Files.createDirectories(ORIGINALS);
+        Path temp = Files.createTempFile(ORIGINALS, "upload", ".tmp");
+        try {
+            String key = copyAndHash(source, temp);
+            int largest = THUMBNAIL_SIZES[THUMBNAIL_SIZES.length - 1];
+            BufferedImage decoded = Thumbnails.decode(temp, largest);
+            if (decoded == null) {
+                throw new IOException(source.getFileName() + " is not a supported image");
+            }
+
+            Path target = original(key);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                // Two uploads of the same bytes may race here; either copy is the right one
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            for (int size : THUMBNAIL_SIZES) {
+                Path thumbnail = thumbnail(key, size);
+                if (!Files.exists(thumbnail)) {
+                    Thumbnails.writePng(Thumbnails.scaleSquare(decoded, size), thumbnail);
+                }
+            }
+            return key;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // True for values written by put; anything else in profile_picture is a legacy path
+    public static boolean isKey(String value) {
+        return value != null && KEY.matcher(value).matches();
+    }
+
+    public static Path original(String key) {
+        return ORIGINALS.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    // Where the size x size thumbnail of the content with this hash lives; it may not exist yet
+    public static Path thumbnail(String hash, int size) {
+        return THUMBNAILS.resolve(hash + "-" + size + ".png");
+    }
+
+    // SHA-256 of a file outside the store, to look up thumbnails of legacy pictures
+    public static String hash(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (in.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // One pass over source: each buffer is hashed and then written to target
+    private static String copyAndHash(Path source, Path target) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (in.size() > MAX_UPLOAD_BYTES) {
+                throw new IOException(source.getFileName() + " is larger than " + MAX_UPLOAD_BYTES / (1024 * 1024) + " MB");
+            }
+            while (in.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+            out.force(false);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
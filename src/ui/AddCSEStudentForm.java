@@ -1,11 +1,12 @@
 package ui;
 
-import db.DBConnection;
+import db.ResultDao;
 import javax.swing.*;
 import java.awt.*;
-import java.sql.*;
 
 public class AddCSEStudentForm extends JFrame {
+    private final ResultDao results = new ResultDao();
+
     public AddCSEStudentForm(int userId) {
         setTitle("Add CSE Student Data");
         setSize(450, 370);
@@ -82,18 +83,14 @@ public class AddCSEStudentForm extends JFrame {
                 return;
             }
 
-            try (Connection conn = DBConnection.getConnection()) {
-                String sql = "INSERT INTO cse_student_data (user_id, subject, grade) VALUES (?, ?, ?)";
-                PreparedStatement stmt = conn.prepareStatement(sql);
-                stmt.setInt(1, userId);
-                stmt.setString(2, subject);
-                stmt.setString(3, grade);
-                stmt.executeUpdate();
+            saveBtn.setEnabled(false);
+            DbExecutor.submitWrite(this, () -> results.insertCseGrade(userId, subject, grade), saved -> {
                 JOptionPane.showMessageDialog(this, "CSE data saved successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 dispose();
-            } catch (SQLException ex) {
+            }, ex -> {
+                saveBtn.setEnabled(true);
                 JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         });
     }
 }
\ No newline at end of file
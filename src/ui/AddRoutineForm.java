@@ -1,15 +1,20 @@
 package ui;
 
-import db.DBConnection;
+import db.RoutineDao;
+import db.RoutineEntry;
+
 import javax.swing.*;
 import java.awt.*;
-import java.sql.*;
+import java.time.LocalDate;
+import java.util.List;
 
 public class AddRoutineForm extends JFrame {
     private JTextField readingField, prayerField, bodybuildingField,
             friendField, giftField, newspaperField;
     private JTextArea remarksArea;
+    private JButton saveBtn;
     private int userId;
+    private final RoutineDao routines = new RoutineDao();
 
     public AddRoutineForm(int userId) {
         this.userId = userId;
@@ -63,13 +68,19 @@ public class AddRoutineForm extends JFrame {
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 15));
         buttonPanel.setBackground(Color.WHITE);
-        JButton saveBtn = createStyledButton("Save", Color.decode("#5e017d"));
+        saveBtn = createStyledButton("Save", Color.decode("#5e017d"));
+        JButton backfillBtn = createStyledButton("Backfill Days...", Color.decode("#932fba"));
         JButton cancelBtn = createStyledButton("Cancel", Color.decode("#932fba"));
 
         saveBtn.addActionListener(e -> saveRoutine());
+        backfillBtn.addActionListener(e -> {
+            new RoutineBackfillForm(userId).setVisible(true);
+            dispose();
+        });
         cancelBtn.addActionListener(e -> dispose());
 
         buttonPanel.add(saveBtn);
+        buttonPanel.add(backfillBtn);
         buttonPanel.add(cancelBtn);
 
         add(buttonPanel, BorderLayout.SOUTH);
@@ -124,33 +135,43 @@ public class AddRoutineForm extends JFrame {
                 return;
             }
 
-            try (Connection conn = DBConnection.getConnection()) {
-                String sql = "INSERT INTO routine_tracker (user_id, date, reading_hours, prayer_hours, " +
-                        "bodybuilding_hours, friend_connection_hours, gift_giving_hours, " +
-                        "newspaper_hours, remarks) VALUES (?, CURDATE(), ?, ?, ?, ?, ?, ?, ?)";
-                PreparedStatement stmt = conn.prepareStatement(sql);
-                stmt.setInt(1, userId);
-                stmt.setFloat(2, reading);
-                stmt.setFloat(3, prayer);
-                stmt.setFloat(4, bodybuilding);
-                stmt.setFloat(5, friend);
-                stmt.setFloat(6, gift);
-                stmt.setFloat(7, newspaper);
-                stmt.setString(8, remarks);
-
-                int affectedRows = stmt.executeUpdate();
-                if (affectedRows > 0) {
-                    JOptionPane.showMessageDialog(this, "Routine saved successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    dispose();
-                } else {
-                    JOptionPane.showMessageDialog(this, "Failed to save routine.", "Error", JOptionPane.ERROR_MESSAGE);
+            // An upsert, so saving again on the same day replaces that day's entry; the
+            // stored row is read first so the user can confirm before it is replaced
+            RoutineEntry today = new RoutineEntry(0, userId, LocalDate.now(), reading, prayer, bodybuilding,
+                    friend, gift, newspaper, remarks);
+            saveBtn.setEnabled(false);
+            DbExecutor.submit(this, () -> routines.findRange(userId, today.date(), today.date()), stored -> {
+                boolean replacing = stored.containsKey(today.date());
+                if (replacing) {
+                    int choice = JOptionPane.showConfirmDialog(this, "Today already has a routine entry."
+                                    + " Replace it with these values?", "Replace Entry?", JOptionPane.YES_NO_OPTION,
+                            JOptionPane.WARNING_MESSAGE);
+                    if (choice != JOptionPane.YES_OPTION) {
+                        saveBtn.setEnabled(true);
+                        return;
+                    }
                 }
-            } catch (SQLException ex) {
+                save(today, replacing);
+            }, ex -> {
+                saveBtn.setEnabled(true);
                 JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
 
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Please enter valid numeric values for hours.", "Input Error", JOptionPane.ERROR_MESSAGE);
         }
     }
-}
\ No newline at end of file
+
+    private void save(RoutineEntry today, boolean replacing) {
+        DbExecutor.submitWrite(this, () -> routines.upsert(userId, List.of(today)).get(0), saved -> {
+            saveBtn.setEnabled(true);
+            RoutineCache.of(userId).inserted(saved);
+            String message = replacing ? "Today's routine entry was updated." : "Routine saved successfully!";
+            JOptionPane.showMessageDialog(this, message, "Success", JOptionPane.INFORMATION_MESSAGE);
+            dispose();
+        }, ex -> {
+            saveBtn.setEnabled(true);
+            JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+}
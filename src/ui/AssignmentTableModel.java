@@ -0,0 +1,110 @@
+package ui;
+
+import db.Assignment;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// Assignments tab rows held column by column: ids, deadlines as epoch days and a
+// boolean[] for the Submitted checkbox, the only editable column. Edits are
+// identified by the id, never by the title, which need not be unique.
+public class AssignmentTableModel extends BulkTableModel<Assignment> {
+    static final int COL_TITLE = 0;
+    static final int COL_DESCRIPTION = 1;
+    static final int COL_DEADLINE = 2;
+    static final int COL_SUBMITTED = 3;
+
+    private static final String[] COLUMNS = {"Title", "Description", "Deadline", "Submitted"};
+
+    private int[] ids = new int[0];
+    private String[] titles = new String[0];
+    private String[] descriptions = new String[0];
+    private int[] deadlines = new int[0];
+    private boolean[] submitted = new boolean[0];
+
+    @Override
+    protected void resize(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        submitted = Arrays.copyOf(submitted, capacity);
+    }
+
+    @Override
+    protected void store(int row, Assignment assignment) {
+        ids[row] = assignment.id();
+        titles[row] = assignment.title();
+        descriptions[row] = assignment.description();
+        deadlines[row] = (int) assignment.deadline().toEpochDay();
+        submitted[row] = assignment.submitted();
+    }
+
+    @Override
+    protected void release(int from, int to) {
+        Arrays.fill(titles, from, to, null);
+        Arrays.fill(descriptions, from, to, null);
+    }
+
+    public int getId(int row) {
+        return ids[checkRow(row)];
+    }
+
+    public boolean isSubmitted(int row) {
+        return submitted[checkRow(row)];
+    }
+
+    // Row index of the assignment with this id, or -1
+    public int indexOf(int id) {
+        for (int row = 0; row < size; row++) {
+            if (ids[row] == id) return row;
+        }
+        return -1;
+    }
+
+    // Sets the checkbox without it counting as an edit: the event is a whole-row update,
+    // not one for COL_SUBMITTED, so it is not written back
+    public void resetSubmitted(int row, boolean value) {
+        submitted[checkRow(row)] = value;
+        fireTableRowsUpdated(row, row);
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        if (column == COL_DEADLINE) return LocalDate.class;
+        return column == COL_SUBMITTED ? Boolean.class : String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == COL_SUBMITTED;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case COL_TITLE: return titles[row];
+            case COL_DESCRIPTION: return descriptions[row];
+            case COL_DEADLINE: return LocalDate.ofEpochDay(deadlines[row]);
+            case COL_SUBMITTED: return submitted[row];
+            default: return null;
+        }
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        if (column != COL_SUBMITTED || !(value instanceof Boolean)) return;
+        submitted[row] = (Boolean) value;
+        fireTableCellUpdated(row, column);
+    }
+}
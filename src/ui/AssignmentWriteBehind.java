@@ -0,0 +1,135 @@
+package ui;
+
+import db.AssignmentDao;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind queue for the Submitted checkboxes on the assignments tab. Clicks only
+// record the wanted value per assignment id; clicking a box back before it is written
+// cancels the change. Pending changes are flushed as one batched transaction shortly
+// after the first click (or at once when many pile up). Rows that could not be
+// written are reset in the table to their last saved value. EDT-confined apart from
+// the writer thread.
+final class AssignmentWriteBehind {
+    private static final int FLUSH_DELAY_MILLIS = 750;
+    private static final int MAX_PENDING = 100;
+    private static final long CLOSE_WAIT_SECONDS = 3;
+
+    // One writer for the whole application, so batches reach the database in the order
+    // they were taken and an older batch never overwrites a newer one
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "assignment-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final class Change {
+        // Value the database is believed to hold
+        boolean saved;
+        boolean wanted;
+
+        Change(boolean saved, boolean wanted) {
+            this.saved = saved;
+            this.wanted = wanted;
+        }
+    }
+
+    private final Component owner;
+    private final AssignmentTableModel model;
+    private final AssignmentDao assignments;
+    private final Map<Integer, Change> pending = new LinkedHashMap<>();
+    private final Timer timer;
+
+    AssignmentWriteBehind(Component owner, AssignmentTableModel model, AssignmentDao assignments) {
+        this.owner = owner;
+        this.model = model;
+        this.assignments = assignments;
+        timer = new Timer(FLUSH_DELAY_MILLIS, e -> flush());
+        timer.setRepeats(false);
+    }
+
+    // Records a checkbox click; the box showed !submitted before it
+    void toggled(int id, boolean submitted) {
+        Change change = pending.get(id);
+        if (change == null) {
+            pending.put(id, new Change(!submitted, submitted));
+        } else if (change.saved == submitted) {
+            pending.remove(id);
+        } else {
+            change.wanted = submitted;
+        }
+
+        if (pending.size() >= MAX_PENDING) {
+            flush();
+        } else if (!pending.isEmpty() && !timer.isRunning()) {
+            // Not restarted by later clicks, so a change waits at most one delay
+            timer.start();
+        }
+    }
+
+    // Hands every pending change to the writer; returns null if there was nothing to write
+    Future<?> flush() {
+        timer.stop();
+        if (pending.isEmpty()) return null;
+
+        Map<Integer, Change> batch = new LinkedHashMap<>(pending);
+        pending.clear();
+        Map<Integer, Boolean> values = new LinkedHashMap<>();
+        batch.forEach((id, change) -> values.put(id, change.wanted));
+
+        return WRITER.submit(() -> {
+            Set<Integer> failed;
+            Exception error = null;
+            try {
+                failed = assignments.setSubmitted(values);
+            } catch (Exception e) {
+                failed = values.keySet();
+                error = e;
+            }
+            Set<Integer> rejected = failed;
+            Exception cause = error;
+            SwingUtilities.invokeLater(() -> reconcile(batch, rejected, cause));
+        });
+    }
+
+    // For window close: writes what is pending and waits briefly so it is not lost on exit
+    void flushAndWait() {
+        Future<?> written = flush();
+        if (written == null) return;
+        try {
+            written.get(CLOSE_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            // Reported through reconcile if the write failed; a timeout is given up on
+        }
+    }
+
+    private void reconcile(Map<Integer, Change> batch, Set<Integer> failed, Exception error) {
+        if (failed.isEmpty()) return;
+        for (int id : failed) {
+            Change change = batch.get(id);
+            Change later = pending.get(id);
+            if (later != null) {
+                // Clicked again since; that change is now measured against the old value
+                later.saved = change.saved;
+                if (later.wanted == later.saved) pending.remove(id);
+                continue;
+            }
+            int row = model.indexOf(id);
+            if (row >= 0) model.resetSubmitted(row, change.saved);
+        }
+
+        if (owner.isDisplayable()) {
+            String reason = error != null ? error.getMessage() : "the assignment no longer exists";
+            JOptionPane.showMessageDialog(owner, "Could not save the submitted status of " + failed.size()
+                    + " assignment(s): " + reason, "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
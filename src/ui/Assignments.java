@@ -1,12 +1,9 @@
 package ui;
 
-import db.DBConnection;
+import db.AssignmentDao;
 
 import javax.swing.*;
 import java.awt.*;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 
@@ -17,6 +14,7 @@ public class Assignments extends JFrame {
     private JTextField deadlineField;
     private JCheckBox submittedCheckbox;
     private JButton submitBtn, resetBtn;
+    private final AssignmentDao assignments = new AssignmentDao();
 
     public Assignments() {
         setTitle("Assignments Entry");
@@ -109,34 +107,27 @@ public class Assignments extends JFrame {
             return;
         }
 
+        LocalDate deadline;
         try {
-            LocalDate.parse(deadlineText);
+            deadline = LocalDate.parse(deadlineText);
         } catch (DateTimeParseException e) {
             JOptionPane.showMessageDialog(this, "Invalid deadline date format. Use YYYY-MM-DD.", "Input Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
 
-        String sql = "INSERT INTO assignments (user_id, title, description, deadline, submitted) VALUES (?, ?, ?, ?, ?)";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, userId);
-            pstmt.setString(2, title);
-            pstmt.setString(3, description);
-            pstmt.setDate(4, java.sql.Date.valueOf(deadlineText));
-            pstmt.setBoolean(5, submitted);
-
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
+        submitBtn.setEnabled(false);
+        DbExecutor.submitWrite(this, () -> assignments.insert(userId, title, description, deadline, submitted), saved -> {
+            submitBtn.setEnabled(true);
+            if (saved) {
                 JOptionPane.showMessageDialog(this, "Assignment saved successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
                 resetForm();
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to save assignment.", "Error", JOptionPane.ERROR_MESSAGE);
             }
-        } catch (SQLException ex) {
+        }, ex -> {
+            submitBtn.setEnabled(true);
             JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     private void resetForm() {
@@ -1,12 +1,9 @@
 package ui;
 
-import db.DBConnection;
+import db.AttendanceDao;
 
 import javax.swing.*;
 import java.awt.*;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 
@@ -16,6 +13,7 @@ public class Attendance extends JFrame {
     private JComboBox<String> statusCombo;
     private JTextArea remarksArea;
     private JButton submitBtn, resetBtn;
+    private final AttendanceDao attendance = new AttendanceDao();
 
     public Attendance() {
         setTitle("Attendance Entry");
@@ -98,33 +96,27 @@ public class Attendance extends JFrame {
             return;
         }
 
+        LocalDate date;
         try {
-            LocalDate.parse(dateText);
+            date = LocalDate.parse(dateText);
         } catch (DateTimeParseException e) {
             JOptionPane.showMessageDialog(this, "Invalid date format. Use YYYY-MM-DD.", "Input Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
 
-        String sql = "INSERT INTO attendance (user_id, attendance_date, status, remarks) VALUES (?, ?, ?, ?)";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, userId);
-            pstmt.setDate(2, java.sql.Date.valueOf(dateText));
-            pstmt.setString(3, status);
-            pstmt.setString(4, remarks);
-
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
+        submitBtn.setEnabled(false);
+        DbExecutor.submitWrite(this, () -> attendance.insert(userId, date, status, remarks), saved -> {
+            submitBtn.setEnabled(true);
+            if (saved) {
                 JOptionPane.showMessageDialog(this, "Attendance record saved successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
                 resetForm();
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to save attendance.", "Error", JOptionPane.ERROR_MESSAGE);
             }
-        } catch (SQLException ex) {
+        }, ex -> {
+            submitBtn.setEnabled(true);
             JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     private void resetForm() {
@@ -0,0 +1,71 @@
+package ui;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.List;
+
+// Base for the portal's columnar table models. Rows only arrive in bulk: setRows swaps
+// in a whole result set and appendRows adds a batch at the end, each firing exactly
+// one TableModelEvent, so loading n rows costs one layout and repaint rather than n.
+// Subclasses keep one array per column; this class decides when those arrays grow or
+// shrink, reusing them across reloads of a similar size. Used on the EDT only.
+public abstract class BulkTableModel<T> extends AbstractTableModel {
+    protected int size;
+    private int capacity;
+
+    // Replaces every row with rows, in order, and fires one data-changed event
+    public void setRows(List<? extends T> rows) {
+        int count = rows.size();
+        if (count > capacity || count < capacity / 4) {
+            // Exact fit on growth, and give memory back after a much smaller reload
+            resize(count);
+            capacity = count;
+        } else if (count < size) {
+            release(count, size);
+        }
+        for (int row = 0; row < count; row++) {
+            store(row, rows.get(row));
+        }
+        size = count;
+        fireTableDataChanged();
+    }
+
+    // Adds rows after the last one and fires one rows-inserted event
+    public void appendRows(List<? extends T> rows) {
+        if (rows.isEmpty()) return;
+        int first = size;
+        int needed = size + rows.size();
+        if (needed > capacity) {
+            capacity = Math.max(needed, capacity * 2);
+            resize(capacity);
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            store(first + i, rows.get(i));
+        }
+        size = needed;
+        fireTableRowsInserted(first, needed - 1);
+    }
+
+    public void clear() {
+        setRows(List.of());
+    }
+
+    @Override
+    public int getRowCount() {
+        return size;
+    }
+
+    // Reallocates every column array to exactly capacity, keeping the first size rows
+    protected abstract void resize(int capacity);
+
+    // Writes item into every column at row
+    protected abstract void store(int row, T item);
+
+    // Drops object references held in rows from..to-1 so they can be collected
+    protected void release(int from, int to) {
+    }
+
+    protected int checkRow(int row) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        return row;
+    }
+}
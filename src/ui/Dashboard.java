@@ -1,14 +1,23 @@
 package ui;
 
-import db.DBConnection;
+import db.AssignmentDao;
+import db.LibraryDao;
+import db.RoutineDao;
+import db.RoutineEntry;
+import db.RoutineSeries;
 
 import javax.swing.*;
 import javax.swing.event.TableModelEvent;
 import javax.swing.table.*;
 import java.awt.*;
-import java.sql.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.time.LocalDate;
 import java.util.Arrays;
-import java.util.Vector;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 public class Dashboard extends JFrame {
 
@@ -18,15 +27,30 @@ public class Dashboard extends JFrame {
     private final String profileImagePath;
 
     private JTabbedPane mainTabbedPane;
+    private final Map<Integer, LazyTab> lazyTabs = new LinkedHashMap<>();
 
     private JTable trackingTable, libraryTable, assignmentsTable;
-    private DefaultTableModel trackingTableModel, libraryTableModel, assignmentsTableModel;
+    private RoutineTableModel trackingTableModel;
+    private LibraryTableModel libraryTableModel;
+    private AssignmentTableModel assignmentsTableModel;
+    private AssignmentWriteBehind submissions;
+    private RoutineSummaryPanel summaryPanel;
+    private RoutineHeatmap heatmap;
+    // RoutineCache outlives this window, so the listeners given to it are kept here to be
+    // removed again when the window closes
+    private final RoutineCache routineCache;
+    private final Runnable trackingListener = this::showTrackingData;
+    private final Runnable heatmapListener = this::refreshHeatmap;
+    private final RoutineDao routines = new RoutineDao();
+    private final LibraryDao library = new LibraryDao();
+    private final AssignmentDao assignments = new AssignmentDao();
 
     public Dashboard(int userId, String name, String email, String profileImagePath) {
         this.userId = userId;
         this.userName = name;
         this.userEmail = email;
         this.profileImagePath = profileImagePath;
+        this.routineCache = RoutineCache.of(userId);
 
         setTitle("Student Portal Dashboard");
         setDefaultCloseOperation(EXIT_ON_CLOSE);
@@ -39,9 +63,19 @@ public class Dashboard extends JFrame {
         setupMainContentPanel();
         setupMenuBar();
 
-        loadTrackingData();
-        loadLibraryData();
-        loadAssignmentsData();
+        // Show the frame with placeholder tabs first; the visible tab loads immediately
+        // and the rest load on first selection or once it has finished
+        mainTabbedPane.addChangeListener(e -> ensureTabLoaded(mainTabbedPane.getSelectedIndex()));
+        ensureTabLoaded(mainTabbedPane.getSelectedIndex(), this::prefetchTabs);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                routineCache.removeChangeListener(trackingListener);
+                routineCache.removeChangeListener(heatmapListener);
+                summaryPanel.detach();
+            }
+        });
 
         setVisible(true);
     }
@@ -56,6 +90,26 @@ public class Dashboard extends JFrame {
         headerPanel.setPreferredSize(new Dimension(getWidth(), 60));
         headerPanel.add(headerLabel, BorderLayout.CENTER);
 
+        // Indeterminate bar shown while any background query is running
+        JProgressBar busyBar = new JProgressBar();
+        busyBar.setIndeterminate(true);
+        busyBar.setPreferredSize(new Dimension(120, 8));
+        busyBar.setVisible(false);
+        JPanel busyPanel = new JPanel(new GridBagLayout());
+        busyPanel.setOpaque(false);
+        busyPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 0, 15));
+        busyPanel.add(busyBar);
+        headerPanel.add(busyPanel, BorderLayout.EAST);
+
+        IntConsumer busyListener = active -> busyBar.setVisible(active > 0);
+        DbExecutor.addActivityListener(busyListener);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                DbExecutor.removeActivityListener(busyListener);
+            }
+        });
+
         add(headerPanel, BorderLayout.NORTH);
     }
 
@@ -124,52 +178,38 @@ public class Dashboard extends JFrame {
         mainTabbedPane = new JTabbedPane();
 
         // 30-Day Tracking Tab
-        trackingTableModel = new DefaultTableModel() {
-            @Override public boolean isCellEditable(int row, int col) { return false; }
-        };
-        trackingTableModel.setColumnIdentifiers(new String[]{
-                "Date", "Reading Hours", "Prayer Hours", "Bodybuilding Hours",
-                "Friend Connection Hours", "Gift Giving Hours", "Newspaper Hours", "Remarks"
-        });
+        trackingTableModel = new RoutineTableModel(false);
         trackingTable = new JTable(trackingTableModel);
         setupTable(trackingTable, new int[]{90, 90, 90, 90, 110, 110, 100, 250});
         JScrollPane trackingScroll = new JScrollPane(trackingTable);
-        mainTabbedPane.addTab("30-Day Tracking", trackingScroll);
+        addLazyTab("30-Day Tracking", trackingScroll, this::loadTrackingData);
 
         // Library Tab
-        libraryTableModel = new DefaultTableModel() {
-            @Override public boolean isCellEditable(int r, int c) { return false; }
-        };
-        libraryTableModel.setColumnIdentifiers(new String[]{
-                "Title", "Author", "ISBN", "Published Year", "Available Copies"
-        });
+        libraryTableModel = new LibraryTableModel();
         libraryTable = new JTable(libraryTableModel);
         setupTable(libraryTable, new int[]{250, 150, 120, 100, 120});
         JScrollPane libraryScroll = new JScrollPane(libraryTable);
-        mainTabbedPane.addTab("Library", libraryScroll);
+        addLazyTab("Library", libraryScroll, this::loadLibraryData);
 
         // Assignments Tab with editable Submitted checkbox
-        assignmentsTableModel = new DefaultTableModel(null, new String[]{
-                "Title", "Description", "Deadline", "Submitted"
-        }) {
+        assignmentsTableModel = new AssignmentTableModel();
+        submissions = new AssignmentWriteBehind(this, assignmentsTableModel, assignments);
+        addWindowListener(new WindowAdapter() {
+            // EXIT_ON_CLOSE ends the process right after this, so save pending toggles first
             @Override
-            public boolean isCellEditable(int row, int col) {
-                return col == 3;
+            public void windowClosing(WindowEvent e) {
+                submissions.flushAndWait();
             }
-            @Override
-            public Class<?> getColumnClass(int col) {
-                return col == 3 ? Boolean.class : String.class;
-            }
-        };
+        });
         assignmentsTable = new JTable(assignmentsTableModel);
         setupTable(assignmentsTable, new int[]{200, 350, 120, 80});
         assignmentsTableModel.addTableModelListener(e -> {
-            if (e.getColumn() == 3 && e.getType() == TableModelEvent.UPDATE) {
+            if (e.getColumn() == AssignmentTableModel.COL_SUBMITTED && e.getType() == TableModelEvent.UPDATE) {
                 updateAssignmentSubmittedStatus(e.getFirstRow());
             }
         });
         JScrollPane assignmentsScroll = new JScrollPane(assignmentsTable);
-        mainTabbedPane.addTab("Assignments", assignmentsScroll);
+        addLazyTab("Assignments", assignmentsScroll, this::loadAssignmentsData);
 
         // Profile Tab
         JPanel profilePanel = new JPanel();
@@ -177,13 +217,11 @@ public class Dashboard extends JFrame {
         profilePanel.setLayout(new BoxLayout(profilePanel, BoxLayout.Y_AXIS));
         profilePanel.setBorder(BorderFactory.createEmptyBorder(30, 0, 20, 0));
 
-        if (profileImagePath != null && !profileImagePath.isEmpty()) {
-            ImageIcon icon = new ImageIcon(profileImagePath);
-            Image image = icon.getImage().getScaledInstance(100, 100, Image.SCALE_SMOOTH);
-            JLabel picLabel = new JLabel(new ImageIcon(image));
-            picLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-            profilePanel.add(picLabel);
-        }
+        // Placeholder until the thumbnail has been decoded in the background
+        JLabel picLabel = new JLabel();
+        ProfileImages.bind(picLabel, profileImagePath, 100);
+        picLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        profilePanel.add(picLabel);
 
         JLabel nameLabel = new JLabel(userName, SwingConstants.CENTER);
         nameLabel.setFont(new Font("Segoe UI", Font.BOLD, 18));
@@ -199,6 +237,17 @@ public class Dashboard extends JFrame {
 
         mainTabbedPane.addTab("Profile", profilePanel);
 
+        // Routine Summary Tab: averages, trends and streaks kept current by RoutineCache
+        summaryPanel = new RoutineSummaryPanel(routineCache);
+        addLazyTab("Routine Summary", summaryPanel, this::loadRoutineSummary);
+
+        // Year Heatmap Tab: total hours per day over the last year
+        heatmap = new RoutineHeatmap();
+        JPanel heatmapPanel = new JPanel(new BorderLayout());
+        heatmapPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        heatmapPanel.add(heatmap, BorderLayout.NORTH);
+        addLazyTab("Year Heatmap", heatmapPanel, this::loadHeatmapData);
+
         add(mainTabbedPane, BorderLayout.CENTER);
     }
 
@@ -218,8 +267,10 @@ public class Dashboard extends JFrame {
                 colModel.getColumn(i).setCellRenderer(wrapRenderer);
             }
         }
+        RowHeightCache.install(table);
     }
 
+    // Paints wrapped text; the row heights that make it fit come from RowHeightCache
     static class TextAreaRenderer extends JTextArea implements TableCellRenderer {
         public TextAreaRenderer() {
             setLineWrap(true);
@@ -235,109 +286,166 @@ public class Dashboard extends JFrame {
             setFont(table.getFont());
             setForeground(isSelected ? table.getSelectionForeground() : table.getForeground());
             setBackground(isSelected ? table.getSelectionBackground() : table.getBackground());
-            setSize(table.getColumnModel().getColumn(column).getWidth(), Short.MAX_VALUE);
-            int preferredHeight = getPreferredSize().height;
-            if (table.getRowHeight(row) != preferredHeight) {
-                table.setRowHeight(row, preferredHeight);
-            }
             return this;
         }
     }
 
-    private void loadTrackingData() {
-        trackingTableModel.setRowCount(0);
-        String sql = "SELECT date, reading_hours, prayer_hours, bodybuilding_hours, " +
-                "friend_connection_hours, gift_giving_hours, newspaper_hours, remarks " +
-                "FROM routine_tracker WHERE user_id = ? AND date >= CURDATE() - INTERVAL 30 DAY ORDER BY date DESC";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Vector<Object> row = new Vector<>();
-                    row.add(rs.getDate("date"));
-                    row.add(rs.getFloat("reading_hours"));
-                    row.add(rs.getFloat("prayer_hours"));
-                    row.add(rs.getFloat("bodybuilding_hours"));
-                    row.add(rs.getFloat("friend_connection_hours"));
-                    row.add(rs.getFloat("gift_giving_hours"));
-                    row.add(rs.getFloat("newspaper_hours"));
-                    row.add(rs.getString("remarks"));
-                    trackingTableModel.addRow(row);
-                }
-            }
-        } catch (SQLException ex) {
-            showError("Error loading tracking data: " + ex.getMessage());
+    private void addLazyTab(String title, JComponent content, Consumer<Runnable> loader) {
+        LazyTab tab = new LazyTab(title, content, loader);
+        lazyTabs.put(mainTabbedPane.getTabCount(), tab);
+        mainTabbedPane.addTab(title, tab.holder);
+    }
+
+    private void ensureTabLoaded(int index) {
+        ensureTabLoaded(index, null);
+    }
+
+    private void ensureTabLoaded(int index, Runnable then) {
+        LazyTab tab = lazyTabs.get(index);
+        if (tab == null || tab.requested) {
+            if (then != null) then.run();
+            return;
         }
+        tab.requested = true;
+        long start = System.nanoTime();
+        tab.loader.accept(() -> {
+            tab.loadMillis = (System.nanoTime() - start) / 1_000_000;
+            ((CardLayout) tab.holder.getLayout()).show(tab.holder, LazyTab.CONTENT);
+            mainTabbedPane.setToolTipTextAt(index, tab.title + " loaded in " + tab.loadMillis + " ms");
+            if (then != null) then.run();
+        });
     }
 
-    private void loadLibraryData() {
-        libraryTableModel.setRowCount(0);
-        String sql = "SELECT title, author, isbn, published_year, available_copies FROM library ORDER BY title";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-            while (rs.next()) {
-                Vector<Object> row = new Vector<>();
-                row.add(rs.getString("title"));
-                row.add(rs.getString("author"));
-                row.add(rs.getString("isbn"));
-                row.add(rs.getInt("published_year"));
-                row.add(rs.getInt("available_copies"));
-                libraryTableModel.addRow(row);
-            }
-        } catch (SQLException ex) {
-            showError("Error loading library data: " + ex.getMessage());
+    // Loads every tab not yet requested; their queries run concurrently on DbExecutor
+    private void prefetchTabs() {
+        for (int index : lazyTabs.keySet()) {
+            ensureTabLoaded(index);
         }
     }
 
-    private void loadAssignmentsData() {
-        assignmentsTableModel.setRowCount(0);
-        String sql = "SELECT title, description, deadline, submitted FROM assignments WHERE user_id = ? ORDER BY deadline DESC";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Vector<Object> row = new Vector<>();
-                    row.add(rs.getString("title"));
-                    row.add(rs.getString("description"));
-                    row.add(rs.getDate("deadline"));
-                    row.add(rs.getBoolean("submitted"));
-                    assignmentsTableModel.addRow(row);
-                }
-            }
-        } catch (SQLException ex) {
-            showError("Error loading assignments data: " + ex.getMessage());
+    // Load latency per tab title in milliseconds, for tabs that have finished loading;
+    // shown in Settings' database statistics
+    Map<String, Long> getTabLoadTimes() {
+        Map<String, Long> times = new LinkedHashMap<>();
+        for (LazyTab tab : lazyTabs.values()) {
+            if (tab.loadMillis >= 0) times.put(tab.title, tab.loadMillis);
         }
+        return times;
     }
 
-    private void updateAssignmentSubmittedStatus(int row) {
-        if (row < 0 || row >= assignmentsTableModel.getRowCount()) return;
+    private static class LazyTab {
+        static final String LOADING = "loading";
+        static final String CONTENT = "content";
+
+        final String title;
+        final Consumer<Runnable> loader;
+        final JPanel holder = new JPanel(new CardLayout());
+        boolean requested;
+        long loadMillis = -1;
+
+        LazyTab(String title, JComponent content, Consumer<Runnable> loader) {
+            this.title = title;
+            this.loader = loader;
+            JLabel loading = new JLabel("Loading " + title + "...", SwingConstants.CENTER);
+            loading.setFont(new Font("Segoe UI", Font.ITALIC, 14));
+            loading.setForeground(new Color(0x777777));
+            holder.add(loading, LOADING);
+            holder.add(content, CONTENT);
+        }
+    }
 
-        Boolean submitted = (Boolean) assignmentsTableModel.getValueAt(row, 3);
-        String title = (String) assignmentsTableModel.getValueAt(row, 0);
+    // A slice of the cached history, refreshed whenever an entry is added, edited or deleted
+    private void loadTrackingData(Runnable done) {
+        routineCache.load(() -> {
+            // The load has no owner, so it can finish after the window has closed
+            if (!isDisplayable()) return;
+            showTrackingData();
+            routineCache.addChangeListener(trackingListener);
+            done.run();
+        }, ex -> {
+            done.run();
+            showError("Error loading tracking data: " + ex.getMessage());
+        });
+    }
 
-        if (title == null) return;
+    private void showTrackingData() {
+        LocalDate today = LocalDate.now();
+        trackingTableModel.setRows(routineCache.series().slice(today.minusDays(30), today));
+    }
 
-        String sql = "UPDATE assignments SET submitted = ? WHERE user_id = ? AND title = ?";
+    private void loadRoutineSummary(Runnable done) {
+        routineCache.load(() -> {
+            summaryPanel.refresh();
+            done.run();
+        }, ex -> {
+            done.run();
+            showError("Error loading routine summary: " + ex.getMessage());
+        });
+    }
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setBoolean(1, submitted);
-            pstmt.setInt(2, userId);
-            pstmt.setString(3, title);
+    // Day totals come from RoutineCache once it holds the history. Until then they come
+    // from one aggregated query, and the history is loaded behind it, so that saves,
+    // which reach only a loaded cache, show up here too.
+    private void loadHeatmapData(Runnable done) {
+        if (routineCache.series() != null) {
+            followCache();
+            done.run();
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(RoutineHeatmap.DAYS - 1);
+        DbExecutor.submit(this, () -> routines.findDailyTotals(userId, from, today), totals -> {
+            heatmap.setTotals(from, totals);
+            done.run();
+            // On failure the query's totals stay; the routine tabs report the error
+            routineCache.load(this::followCache, ex -> {});
+        }, ex -> {
+            done.run();
+            showError("Error loading heatmap data: " + ex.getMessage());
+        });
+    }
 
-            int affected = pstmt.executeUpdate();
-            if (affected == 0) {
-                showError("Failed to update assignment status for " + title);
-            }
-        } catch (SQLException ex) {
-            showError("Database error updating assignment: " + ex.getMessage());
+    private void followCache() {
+        if (!isDisplayable()) return;
+        refreshHeatmap();
+        routineCache.addChangeListener(heatmapListener);
+    }
+
+    // Rebuilds the year's totals from the cached history; the heatmap redraws only the
+    // days whose total changed, unless the date has moved on since it was drawn
+    private void refreshHeatmap() {
+        RoutineSeries series = routineCache.series();
+        LocalDate from = LocalDate.now().minusDays(RoutineHeatmap.DAYS - 1);
+        float[] totals = new float[RoutineHeatmap.DAYS];
+        for (RoutineEntry entry : series.slice(from, from.plusDays(RoutineHeatmap.DAYS - 1))) {
+            totals[(int) (entry.date().toEpochDay() - from.toEpochDay())] = entry.totalHours();
         }
+        heatmap.setTotals(from, totals);
+    }
+
+    private void loadLibraryData(Runnable done) {
+        DbExecutor.submit(this, library::findAll, books -> {
+            libraryTableModel.setRows(books);
+            done.run();
+        }, ex -> {
+            done.run();
+            showError("Error loading library data: " + ex.getMessage());
+        });
+    }
+
+    private void loadAssignmentsData(Runnable done) {
+        DbExecutor.submit(this, () -> assignments.findByUser(userId), rows -> {
+            assignmentsTableModel.setRows(rows);
+            done.run();
+        }, ex -> {
+            done.run();
+            showError("Error loading assignments data: " + ex.getMessage());
+        });
+    }
+
+    private void updateAssignmentSubmittedStatus(int row) {
+        if (row < 0 || row >= assignmentsTableModel.getRowCount()) return;
+        submissions.toggled(assignmentsTableModel.getId(row), assignmentsTableModel.isSubmitted(row));
     }
 
     private void showError(String message) {
@@ -510,6 +618,8 @@ public class Dashboard extends JFrame {
         int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to logout?",
                 "Logout Confirmation", JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
+            submissions.flush();
+            RoutineCache.discard(userId);
             dispose();
             new SignInForm().setVisible(true);
         }
@@ -0,0 +1,223 @@
+package ui;
+
+import db.DBConnection;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+// Shared executor for JDBC work. Work runs on a bounded background pool and its
+// result is delivered on the EDT. While a task is pending its owner window shows a
+// wait cursor, and closing the window cancels the reads it still has in flight. Writes
+// (submitWrite) are never cancelled with their window: they run to the end and their
+// callbacks still run, so nothing the user saved is cut off half way.
+public final class DbExecutor {
+
+    @FunctionalInterface
+    public interface Work<T> {
+        T call() throws Exception;
+    }
+
+    // Matches the connection pool's maximum so workers never queue on the pool itself
+    private static final int THREADS = DBConnection.getConfig().maxPoolSize();
+
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+            THREADS, THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "db-worker-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    // EDT-confined bookkeeping
+    private static final Map<Window, Set<Task<?>>> PENDING = new WeakHashMap<>();
+    private static final List<IntConsumer> ACTIVITY_LISTENERS = new ArrayList<>();
+    private static int active;
+
+    private DbExecutor() {
+    }
+
+    // Runs work in the background; errors are reported with a standard dialog
+    public static <T> Task<T> submit(Component owner, Work<T> work, Consumer<? super T> onSuccess) {
+        return submit(owner, work, onSuccess, ex -> JOptionPane.showMessageDialog(owner,
+                "Database error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    public static <T> Task<T> submit(Component owner, Work<T> work,
+                                     Consumer<? super T> onSuccess, Consumer<? super Exception> onFailure) {
+        return start(new Task<>(windowOf(owner), false, work, onSuccess, onFailure));
+    }
+
+    // Like submit, for work that changes the database; it outlives its owner window
+    public static <T> Task<T> submitWrite(Component owner, Work<T> work, Consumer<? super T> onSuccess) {
+        return submitWrite(owner, work, onSuccess, ex -> JOptionPane.showMessageDialog(owner,
+                "Database error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    public static <T> Task<T> submitWrite(Component owner, Work<T> work,
+                                          Consumer<? super T> onSuccess, Consumer<? super Exception> onFailure) {
+        return start(new Task<>(windowOf(owner), true, work, onSuccess, onFailure));
+    }
+
+    private static <T> Task<T> start(Task<T> task) {
+        onEdt(task::start);
+        return task;
+    }
+
+    // Listener receives the number of in-flight tasks on the EDT whenever it changes
+    public static void addActivityListener(IntConsumer listener) {
+        ACTIVITY_LISTENERS.add(listener);
+        listener.accept(active);
+    }
+
+    public static void removeActivityListener(IntConsumer listener) {
+        ACTIVITY_LISTENERS.remove(listener);
+    }
+
+    private static Window windowOf(Component owner) {
+        if (owner == null || owner instanceof Window) {
+            return (Window) owner;
+        }
+        return SwingUtilities.getWindowAncestor(owner);
+    }
+
+    private static void onEdt(Runnable r) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            r.run();
+        } else {
+            SwingUtilities.invokeLater(r);
+        }
+    }
+
+    private static void activityChanged(int delta) {
+        active += delta;
+        for (IntConsumer listener : new ArrayList<>(ACTIVITY_LISTENERS)) {
+            listener.accept(active);
+        }
+    }
+
+    private static void track(Task<?> task) {
+        Window window = task.window;
+        if (window != null) {
+            Set<Task<?>> tasks = PENDING.get(window);
+            if (tasks == null) {
+                tasks = new LinkedHashSet<>();
+                PENDING.put(window, tasks);
+                window.addWindowListener(new WindowAdapter() {
+                    @Override
+                    public void windowClosed(WindowEvent e) {
+                        Set<Task<?>> open = PENDING.remove(window);
+                        if (open != null) {
+                            for (Task<?> pending : new ArrayList<>(open)) {
+                                if (!pending.write) pending.cancel();
+                            }
+                        }
+                        window.removeWindowListener(this);
+                    }
+                });
+            }
+            tasks.add(task);
+            window.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        }
+        activityChanged(1);
+    }
+
+    private static void untrack(Task<?> task) {
+        Window window = task.window;
+        if (window != null) {
+            Set<Task<?>> tasks = PENDING.get(window);
+            if (tasks != null) {
+                tasks.remove(task);
+                if (tasks.isEmpty()) {
+                    window.setCursor(Cursor.getDefaultCursor());
+                }
+            }
+        }
+        activityChanged(-1);
+    }
+
+    public static final class Task<T> {
+        private final Window window;
+        private final boolean write;
+        private final Work<T> work;
+        private final Consumer<? super T> onSuccess;
+        private final Consumer<? super Exception> onFailure;
+        private volatile Future<?> future;
+        private volatile boolean cancelled;
+        private boolean finished;
+
+        private Task(Window window, boolean write, Work<T> work,
+                     Consumer<? super T> onSuccess, Consumer<? super Exception> onFailure) {
+            this.window = window;
+            this.write = write;
+            this.work = work;
+            this.onSuccess = onSuccess;
+            this.onFailure = onFailure;
+        }
+
+        private void start() {
+            if (cancelled) return;
+            track(this);
+            future = EXECUTOR.submit(() -> {
+                T result = null;
+                Exception error = null;
+                try {
+                    if (!cancelled) {
+                        result = work.call();
+                    }
+                } catch (Exception ex) {
+                    error = ex;
+                }
+                T value = result;
+                Exception failure = error;
+                SwingUtilities.invokeLater(() -> complete(value, failure));
+            });
+        }
+
+        private void complete(T result, Exception error) {
+            if (finished) return;
+            finished = true;
+            untrack(this);
+            if (cancelled) return;
+            if (error != null) {
+                if (onFailure != null) onFailure.accept(error);
+            } else if (onSuccess != null) {
+                onSuccess.accept(result);
+            }
+        }
+
+        // Callbacks are suppressed once cancelled. A running read is interrupted; a
+        // running write is left to finish, only a write that has not started is dropped.
+        public void cancel() {
+            cancelled = true;
+            Future<?> f = future;
+            if (f != null && f.cancel(!write)) {
+                onEdt(() -> complete(null, null));
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isDone() {
+            Future<?> f = future;
+            return cancelled || (f != null && f.isDone());
+        }
+    }
+}
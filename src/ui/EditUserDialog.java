@@ -1,11 +1,8 @@
 package ui;
 
-import db.DBConnection;
-
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.sql.*;
 
 public class EditUserDialog extends JDialog {
     private JTextField nameField;
@@ -130,29 +127,14 @@ public class EditUserDialog extends JDialog {
         String phone = phoneField.getText().trim();
         String address = addressArea.getText().trim();
 
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "UPDATE users SET name=?, email=?, username=?, city=?, gender=?, phone=?, address=? WHERE id=?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, name);
-            stmt.setString(2, email);
-            stmt.setString(3, username);
-            stmt.setString(4, city);
-            stmt.setString(5, gender);
-            stmt.setString(6, phone);
-            stmt.setString(7, address);
-            stmt.setInt(8, userId);
-
-            int rows = stmt.executeUpdate();
-            if (rows > 0) {
-                // Update table in parent view
-                parent.updateUser(userId, name, email, username, city, gender, phone, address, rowIndex);
-                JOptionPane.showMessageDialog(this, "User updated successfully.");
+        // The parent view performs the update off the EDT and refreshes its row
+        saveButton.setEnabled(false);
+        parent.updateUser(userId, name, email, username, city, gender, phone, address, rowIndex, updated -> {
+            if (updated) {
                 dispose();
             } else {
-                JOptionPane.showMessageDialog(this, "Failed to update user.");
+                saveButton.setEnabled(true);
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage());
-        }
+        });
     }
 }
@@ -0,0 +1,28 @@
+package ui;
+
+import javax.swing.table.DefaultTableCellRenderer;
+
+// Renders a Float hours cell as "2.5 hrs". Formatting happens only when a cell is
+// painted, and the strings for 0.0 to 24.0 are built once and shared, so scrolling
+// a long history does not run String.format for every visible cell.
+class HoursRenderer extends DefaultTableCellRenderer {
+    private static final int MAX_TENTHS = 240;
+    private static final String[] CACHE = new String[MAX_TENTHS + 1];
+
+    static {
+        for (int tenths = 0; tenths <= MAX_TENTHS; tenths++) {
+            CACHE[tenths] = tenths / 10 + "." + tenths % 10 + " hrs";
+        }
+    }
+
+    static String format(float hours) {
+        int tenths = Math.round(hours * 10);
+        if (tenths >= 0 && tenths <= MAX_TENTHS) return CACHE[tenths];
+        return String.format("%.1f hrs", hours);
+    }
+
+    @Override
+    protected void setValue(Object value) {
+        setText(value instanceof Float ? format((Float) value) : value == null ? "" : value.toString());
+    }
+}
@@ -1,16 +1,14 @@
 package ui;
 
-import db.DBConnection;
+import db.LibraryDao;
 
 import javax.swing.*;
 import java.awt.*;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 
 public class Library extends JFrame {
     private JTextField titleField, authorField, isbnField, publishedYearField, availableCopiesField;
     private JButton submitBtn, resetBtn;
+    private final LibraryDao library = new LibraryDao();
 
     public Library() {
         setTitle("Library Entry");
@@ -111,27 +109,19 @@ public class Library extends JFrame {
             return;
         }
 
-        String sql = "INSERT INTO library (title, author, isbn, published_year, available_copies) VALUES (?, ?, ?, ?, ?)";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, title);
-            pstmt.setString(2, author);
-            pstmt.setString(3, isbn);
-            pstmt.setInt(4, publishedYear);
-            pstmt.setInt(5, availableCopies);
-
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
+        submitBtn.setEnabled(false);
+        DbExecutor.submitWrite(this, () -> library.insert(title, author, isbn, publishedYear, availableCopies), saved -> {
+            submitBtn.setEnabled(true);
+            if (saved) {
                 JOptionPane.showMessageDialog(this, "Library entry saved successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
                 resetForm();
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to save library entry.", "Error", JOptionPane.ERROR_MESSAGE);
             }
-        } catch (SQLException ex) {
+        }, ex -> {
+            submitBtn.setEnabled(true);
             JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     private void resetForm() {
@@ -0,0 +1,69 @@
+package ui;
+
+import db.LibraryBook;
+
+import java.util.Arrays;
+
+// Library tab rows held column by column; the two numeric columns are int[] rather
+// than a boxed Integer per cell. Read-only.
+public class LibraryTableModel extends BulkTableModel<LibraryBook> {
+    private static final String[] COLUMNS = {"Title", "Author", "ISBN", "Published Year", "Available Copies"};
+
+    private String[] titles = new String[0];
+    private String[] authors = new String[0];
+    private String[] isbns = new String[0];
+    private int[] publishedYears = new int[0];
+    private int[] availableCopies = new int[0];
+
+    @Override
+    protected void resize(int capacity) {
+        titles = Arrays.copyOf(titles, capacity);
+        authors = Arrays.copyOf(authors, capacity);
+        isbns = Arrays.copyOf(isbns, capacity);
+        publishedYears = Arrays.copyOf(publishedYears, capacity);
+        availableCopies = Arrays.copyOf(availableCopies, capacity);
+    }
+
+    @Override
+    protected void store(int row, LibraryBook book) {
+        titles[row] = book.title();
+        authors[row] = book.author();
+        isbns[row] = book.isbn();
+        publishedYears[row] = book.publishedYear();
+        availableCopies[row] = book.availableCopies();
+    }
+
+    @Override
+    protected void release(int from, int to) {
+        Arrays.fill(titles, from, to, null);
+        Arrays.fill(authors, from, to, null);
+        Arrays.fill(isbns, from, to, null);
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column >= 3 ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case 0: return titles[row];
+            case 1: return authors[row];
+            case 2: return isbns[row];
+            case 3: return publishedYears[row];
+            case 4: return availableCopies[row];
+            default: return null;
+        }
+    }
+}
@@ -1,17 +1,15 @@
 package ui;
 
-import db.DBConnection;
+import db.NoticeDao;
 
 import javax.swing.*;
 import java.awt.*;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 
 public class Notices extends JFrame {
     private JTextField titleField;
     private JTextArea contentArea;
     private JButton submitBtn, resetBtn;
+    private final NoticeDao notices = new NoticeDao();
 
     public Notices() {
         setTitle("Notices Entry");
@@ -71,24 +69,19 @@ public class Notices extends JFrame {
             return;
         }
 
-        String sql = "INSERT INTO notices (title, content) VALUES (?, ?)";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, title);
-            pstmt.setString(2, content);
-
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
+        submitBtn.setEnabled(false);
+        DbExecutor.submitWrite(this, () -> notices.insert(title, content), saved -> {
+            submitBtn.setEnabled(true);
+            if (saved) {
                 JOptionPane.showMessageDialog(this, "Notice saved successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
                 resetForm();
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to save notice.", "Error", JOptionPane.ERROR_MESSAGE);
             }
-        } catch (SQLException ex) {
+        }, ex -> {
+            submitBtn.setEnabled(true);
             JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     private void resetForm() {
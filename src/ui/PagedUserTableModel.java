@@ -0,0 +1,204 @@
+package ui;
+
+import db.UserDao;
+import db.UserFilter;
+import db.UserSummary;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+
+// Table model for the users table that loads rows a page at a time as the JTable
+// asks for them. Pages are addressed by keyset on users.id (WHERE id > ? ORDER BY id)
+// and only a bounded number of them are kept in memory. All access happens on the EDT.
+public class PagedUserTableModel extends AbstractTableModel {
+    static final int PAGE_SIZE = 100;
+    private static final int MAX_CACHED_PAGES = 20;
+    // Searches are capped so a loose filter never pages through the whole table
+    static final int MAX_SEARCH_RESULTS = 1000;
+
+    static final int COL_ID = 0;
+    static final int COL_EDIT = 8;
+    static final int COL_DELETE = 9;
+
+    private static final String[] COLUMNS = {
+            "ID", "Name", "Email", "Username", "City", "Gender", "Phone", "Address", "Edit", "Delete"
+    };
+
+    private static final UserSummary[] EMPTY_PAGE = new UserSummary[0];
+
+    private final Component owner;
+    private final UserDao users = new UserDao();
+
+    // Least recently used page is evicted first
+    private final LinkedHashMap<Integer, UserSummary[]> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, UserSummary[]> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    // Page index -> id of the last row before that page; page 0 starts after id 0
+    private final TreeMap<Integer, Integer> pageAfterIds = new TreeMap<>();
+    private final Set<Integer> pendingPages = new HashSet<>();
+    private UserFilter filter = UserFilter.NONE;
+    private DbExecutor.Task<Integer> countTask;
+    private int rowCount;
+    private int generation;
+
+    public PagedUserTableModel(Component owner) {
+        this.owner = owner;
+        pageAfterIds.put(0, 0);
+    }
+
+    public UserFilter getFilter() {
+        return filter;
+    }
+
+    // Restricts the rows to those matching filter and reloads
+    public void setFilter(UserFilter filter) {
+        if (filter.equals(this.filter)) return;
+        this.filter = filter;
+        reload();
+    }
+
+    // Drops every cached page and re-reads the row count
+    public void reload() {
+        generation++;
+        int gen = generation;
+        pages.clear();
+        pendingPages.clear();
+        pageAfterIds.clear();
+        pageAfterIds.put(0, 0);
+        if (countTask != null) countTask.cancel();
+
+        UserFilter current = filter;
+        countTask = DbExecutor.submit(owner, () -> users.count(current, MAX_SEARCH_RESULTS), count -> {
+            if (gen != generation) return;
+            rowCount = count;
+            fireTableDataChanged();
+        });
+    }
+
+    public boolean isResultCapped() {
+        return !filter.isEmpty() && rowCount >= MAX_SEARCH_RESULTS;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == COL_ID ? Integer.class : String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == COL_EDIT || column == COL_DELETE;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (column == COL_EDIT) return "Edit";
+        if (column == COL_DELETE) return "Delete";
+
+        UserSummary user = getRow(row);
+        if (user == null) {
+            return column == 1 ? "Loading..." : null;
+        }
+        switch (column) {
+            case COL_ID: return user.id();
+            case 1: return user.name();
+            case 2: return user.email();
+            case 3: return user.username();
+            case 4: return user.city();
+            case 5: return user.gender();
+            case 6: return user.phone();
+            case 7: return user.address();
+            default: return null;
+        }
+    }
+
+    // Returns the cached row, or null after scheduling a load of its page
+    UserSummary getRow(int row) {
+        if (row < 0 || row >= rowCount) return null;
+        int page = row / PAGE_SIZE;
+        UserSummary[] data = pages.get(page);
+        if (data == null) {
+            requestPage(page);
+            return null;
+        }
+        int offset = row % PAGE_SIZE;
+        return offset < data.length ? data[offset] : null;
+    }
+
+    // Patches a cached row after a successful update
+    void updateRow(int row, UserSummary user) {
+        UserSummary[] data = pages.get(row / PAGE_SIZE);
+        if (data != null && row % PAGE_SIZE < data.length && data[row % PAGE_SIZE].id() == user.id()) {
+            data[row % PAGE_SIZE] = user;
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+    private void requestPage(int page) {
+        if (!pendingPages.add(page)) return;
+
+        int gen = generation;
+        Map.Entry<Integer, Integer> known = pageAfterIds.floorEntry(page);
+        int knownPage = known.getKey();
+        int knownAfterId = known.getValue();
+        UserFilter current = filter;
+
+        DbExecutor.submit(owner, () -> {
+            int afterId = knownAfterId;
+            if (knownPage != page) {
+                // Walk the primary key index from the nearest known boundary
+                Optional<Integer> boundary = users.findIdAfter(knownAfterId,
+                        (page - knownPage) * PAGE_SIZE - 1, current);
+                if (boundary.isEmpty()) return new PageResult(afterId, EMPTY_PAGE);
+                afterId = boundary.get();
+            }
+            return new PageResult(afterId, users.findPage(afterId, PAGE_SIZE, current).toArray(EMPTY_PAGE));
+        }, result -> {
+            if (gen != generation) return;
+            pendingPages.remove(page);
+            pageAfterIds.put(page, result.afterId);
+            if (result.rows.length > 0) {
+                pageAfterIds.put(page + 1, result.rows[result.rows.length - 1].id());
+            }
+            pages.put(page, result.rows);
+            int first = page * PAGE_SIZE;
+            int last = Math.min(rowCount, first + PAGE_SIZE) - 1;
+            if (last >= first) fireTableRowsUpdated(first, last);
+        }, ex -> {
+            // Leave the page marked pending so repaints don't retry it until the next reload()
+            if (gen == generation) {
+                JOptionPane.showMessageDialog(owner, "Database error: " + ex.getMessage());
+            }
+        });
+    }
+
+    private static class PageResult {
+        final int afterId;
+        final UserSummary[] rows;
+
+        PageResult(int afterId, UserSummary[] rows) {
+            this.afterId = afterId;
+            this.rows = rows;
+        }
+    }
+}
@@ -14,13 +14,11 @@ public class Profile extends JFrame {
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
         panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
-        if (profileImagePath != null && !profileImagePath.isEmpty()) {
-            ImageIcon icon = new ImageIcon(profileImagePath);
-            Image image = icon.getImage().getScaledInstance(100, 100, Image.SCALE_SMOOTH);
-            JLabel picLabel = new JLabel(new ImageIcon(image));
-            picLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-            panel.add(picLabel);
-        }
+        // Placeholder until the thumbnail has been decoded in the background
+        JLabel picLabel = new JLabel();
+        ProfileImages.bind(picLabel, profileImagePath, 100);
+        picLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        panel.add(picLabel);
 
         JLabel nameLabel = new JLabel("Name: " + userName);
         nameLabel.setFont(new Font("Segoe UI", Font.BOLD, 16));
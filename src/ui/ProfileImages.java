@@ -0,0 +1,166 @@
+package ui;
+
+import media.ImageStore;
+import media.Thumbnails;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Square profile thumbnails, loaded off the EDT. A label shows a placeholder straight
+// away and gets the picture once it is ready. Pictures are either ImageStore keys,
+// whose thumbnails were written at upload, or legacy absolute paths. Lookups go to a
+// small in-memory LRU first. Next are the store's thumbnail files, which legacy
+// pictures also use, named by the SHA-256 of the source file so a moved copy of the
+// same photo is not decoded again. Only then is the original decoded and scaled by
+// Thumbnails.
+public final class ProfileImages {
+    private static final int MEMORY_ENTRIES = 32;
+
+    private static final ExecutorService DECODER = Executors.newFixedThreadPool(2, new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "profile-image-" + count.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        }
+    });
+
+    // Store keys name immutable content, so modified and length are 0 for them
+    private record Key(String picture, int size, long modified, long length) {}
+
+    // Guarded by MEMORY
+    private static final Map<Key, BufferedImage> MEMORY = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, BufferedImage> eldest) {
+            return size() > MEMORY_ENTRIES;
+        }
+    };
+    // Requests for the same image share one load; guarded by MEMORY
+    private static final Map<Key, CompletableFuture<BufferedImage>> LOADING = new HashMap<>();
+    // EDT only
+    private static final Map<Integer, Icon> PLACEHOLDERS = new HashMap<>();
+
+    private ProfileImages() {
+    }
+
+    // Shows a size x size placeholder in label now and the picture once it has loaded;
+    // the placeholder stays if there is no picture or it cannot be read. picture is a
+    // users.profile_picture value.
+    public static void bind(JLabel label, String picture, int size) {
+        label.setIcon(placeholder(size));
+        if (picture == null || picture.isBlank()) return;
+
+        load(picture, size).whenComplete((image, error) -> {
+            if (image == null) return;
+            SwingUtilities.invokeLater(() -> label.setIcon(new ImageIcon(image)));
+        });
+    }
+
+    // Completes with the thumbnail, or null when the file is missing or not an image.
+    // A legacy path is looked at on the decoder threads, never the caller's: its cache
+    // key includes the file's modified time and size, and stat can block for a long time
+    // on a network-mounted home directory.
+    public static CompletableFuture<BufferedImage> load(String picture, int size) {
+        if (ImageStore.isKey(picture)) {
+            return cached(new Key(picture, size, 0, 0), () -> thumbnail(ImageStore.original(picture), picture, size));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Path path = Paths.get(picture);
+                return new Key(path.toAbsolutePath().toString(), size,
+                        Files.getLastModifiedTime(path).toMillis(), Files.size(path));
+            } catch (IOException | InvalidPathException e) {
+                return null;
+            }
+        }, DECODER).thenCompose(key -> key == null
+                ? CompletableFuture.completedFuture(null)
+                : cached(key, () -> thumbnail(Paths.get(picture), ImageStore.hash(Paths.get(picture)), size)));
+    }
+
+    @FunctionalInterface
+    private interface Loader {
+        BufferedImage load() throws IOException;
+    }
+
+    // The image for key from memory, or from loader run on the decoder threads
+    private static CompletableFuture<BufferedImage> cached(Key key, Loader loader) {
+        synchronized (MEMORY) {
+            BufferedImage cached = MEMORY.get(key);
+            if (cached != null) return CompletableFuture.completedFuture(cached);
+            CompletableFuture<BufferedImage> pending = LOADING.get(key);
+            if (pending != null) return pending;
+
+            CompletableFuture<BufferedImage> future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return loader.load();
+                } catch (IOException e) {
+                    return null;
+                }
+            }, DECODER);
+            LOADING.put(key, future);
+            future.whenComplete((image, error) -> {
+                synchronized (MEMORY) {
+                    LOADING.remove(key);
+                    if (image != null) MEMORY.put(key, image);
+                }
+            });
+            return future;
+        }
+    }
+
+    private static BufferedImage thumbnail(Path source, String hash, int size) throws IOException {
+        Path cached = ImageStore.thumbnail(hash, size);
+        if (Files.isRegularFile(cached)) {
+            BufferedImage image = ImageIO.read(cached.toFile());
+            if (image != null) return image;
+        }
+
+        BufferedImage decoded = Thumbnails.decode(source, size);
+        if (decoded == null) return null;
+        BufferedImage thumb = Thumbnails.scaleSquare(decoded, size);
+        try {
+            Thumbnails.writePng(thumb, cached);
+        } catch (IOException e) {
+            // The thumbnail is still good; it is only rebuilt next time
+        }
+        return thumb;
+    }
+
+    // Grey head-and-shoulders silhouette, drawn once per size
+    static Icon placeholder(int size) {
+        return PLACEHOLDERS.computeIfAbsent(size, s -> {
+            BufferedImage image = new BufferedImage(s, s, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = image.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g.setColor(new Color(0xe6e0ea));
+                g.fillRect(0, 0, s, s);
+                g.setColor(new Color(0xb9a9c4));
+                g.fill(new Ellipse2D.Double(s * 0.32, s * 0.16, s * 0.36, s * 0.36));
+                g.fill(new Ellipse2D.Double(s * 0.14, s * 0.58, s * 0.72, s * 0.6));
+            } finally {
+                g.dispose();
+            }
+            return new ImageIcon(image);
+        });
+    }
+}
@@ -1,13 +1,14 @@
 package ui;
 
-import db.DBConnection;
-import org.mindrot.jbcrypt.BCrypt;
+import auth.PasswordHasher;
+import db.UserDao;
+import media.ImageStore;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.File;
-import java.sql.*;
+import java.nio.file.Paths;
 
 public class RegistrationForm extends JFrame {
 
@@ -16,6 +17,8 @@ public class RegistrationForm extends JFrame {
     private JComboBox<String> genderCombo;
     private JTextArea addressArea;
     private JLabel profilePicLabel;
+    private JButton submitButton;
+    private final UserDao users = new UserDao();
     private String profileImagePath = null;
 
     // Colors for styling
@@ -115,7 +118,7 @@ public class RegistrationForm extends JFrame {
         gbc.fill = GridBagConstraints.HORIZONTAL;
         gbc.anchor = GridBagConstraints.CENTER;
         gbc.insets = new Insets(15, 0, 15, 0);
-        JButton submitButton = new JButton("Register");
+        submitButton = new JButton("Register");
         submitButton.setBackground(primaryColor);
         submitButton.setForeground(Color.white);
         submitButton.setFocusPainted(false);
@@ -170,30 +173,22 @@ public class RegistrationForm extends JFrame {
             return;
         }
 
-        // Hash password securely before storing
-        String hashedPassword = BCrypt.hashpw(password, BCrypt.gensalt());
-
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "INSERT INTO users (name, email, username, password, city, gender, phone, address, profile_picture) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, name);
-                stmt.setString(2, email);
-                stmt.setString(3, username);
-                stmt.setString(4, hashedPassword);  // Store hashed password
-                stmt.setString(5, city);
-                stmt.setString(6, gender);
-                stmt.setString(7, phone);
-                stmt.setString(8, address);
-                stmt.setString(9, profileImagePath);
-                stmt.executeUpdate();
-
-                JOptionPane.showMessageDialog(this, "Registration successful! Please sign in.");
-                dispose();
-                new SignInForm().setVisible(true);
-            }
-        } catch (SQLException ex) {
+        String picturePath = profileImagePath;
+        submitButton.setEnabled(false);
+        DbExecutor.submitWrite(this, () -> {
+            // Hash password securely before storing
+            String hashedPassword = PasswordHasher.hash(password);
+            // The picture is copied into the image store; the account keeps its key
+            String pictureKey = picturePath == null ? null : ImageStore.put(Paths.get(picturePath));
+            return users.insert(name, email, username, hashedPassword, city, gender, phone, address, pictureKey);
+        }, saved -> {
+            JOptionPane.showMessageDialog(this, "Registration successful! Please sign in.");
+            dispose();
+            new SignInForm().setVisible(true);
+        }, ex -> {
+            submitButton.setEnabled(true);
             JOptionPane.showMessageDialog(this, "Database Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     // Main method to run RegistrationForm independently
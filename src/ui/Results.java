@@ -1,12 +1,9 @@
 package ui;
 
-import db.DBConnection;
+import db.ResultDao;
 
 import javax.swing.*;
 import java.awt.*;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 
@@ -16,6 +13,7 @@ public class Results extends JFrame {
     private JTextField examDateField;
     private JTextField gradeField;
     private JButton submitBtn, resetBtn;
+    private final ResultDao results = new ResultDao();
 
     public Results() {
         setTitle("Results Entry");
@@ -94,33 +92,27 @@ public class Results extends JFrame {
             return;
         }
 
+        LocalDate examDate;
         try {
-            LocalDate.parse(examDateText);
+            examDate = LocalDate.parse(examDateText);
         } catch (DateTimeParseException e) {
             JOptionPane.showMessageDialog(this, "Invalid date format. Use YYYY-MM-DD.", "Input Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
 
-        String sql = "INSERT INTO results (user_id, course_name, exam_date, grade) VALUES (?, ?, ?, ?)";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, userId);
-            pstmt.setString(2, courseName);
-            pstmt.setDate(3, java.sql.Date.valueOf(examDateText));
-            pstmt.setString(4, grade);
-
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
+        submitBtn.setEnabled(false);
+        DbExecutor.submitWrite(this, () -> results.insert(userId, courseName, examDate, grade), saved -> {
+            submitBtn.setEnabled(true);
+            if (saved) {
                 JOptionPane.showMessageDialog(this, "Result record saved successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
                 resetForm();
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to save result.", "Error", JOptionPane.ERROR_MESSAGE);
             }
-        } catch (SQLException ex) {
+        }, ex -> {
+            submitBtn.setEnabled(true);
             JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     private void resetForm() {
@@ -0,0 +1,351 @@
+package ui;
+
+import db.RoutineDao;
+import db.RoutineEntry;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableColumnModel;
+import java.awt.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Routine hours for several past days at once. The chosen range is shown as a grid,
+// one row per day, filled in from the entries RoutineCache holds. Save sends every
+// row that was filled in or changed as one RoutineDao.upsert, which replaces what
+// those days hold. Before that, the range is read back from the database, and days
+// that another window or client changed after the grid was shown are listed so the
+// user can choose whether to overwrite them. A logged day that
+// was cleared is not saved, since an empty row is not a delete, and the user is told
+// so. Each row's Status then says what happened to the day.
+public class RoutineBackfillForm extends JFrame {
+    private static final int MAX_DAYS = 31;
+
+    private final int userId;
+    private final RoutineDao routines = new RoutineDao();
+    private final JTextField fromField = new JTextField(10);
+    private final JTextField toField = new JTextField(10);
+    private final BackfillTableModel tableModel = new BackfillTableModel();
+    private final JTable table = new JTable(tableModel);
+    private final JButton saveBtn;
+
+    public RoutineBackfillForm(int userId) {
+        this.userId = userId;
+        setTitle("Backfill Routine Entries");
+        setSize(1000, 600);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        getContentPane().setBackground(Color.WHITE);
+        setLayout(new BorderLayout());
+
+        JPanel northPanel = new JPanel(new BorderLayout());
+        JPanel headerPanel = new JPanel();
+        headerPanel.setBackground(Color.decode("#5e017d"));
+        headerPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        JLabel titleLabel = new JLabel("Backfill Routine Entries", SwingConstants.CENTER);
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 18));
+        titleLabel.setForeground(Color.WHITE);
+        headerPanel.add(titleLabel);
+        northPanel.add(headerPanel, BorderLayout.NORTH);
+
+        JPanel rangePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
+        rangePanel.setBackground(Color.WHITE);
+        LocalDate today = LocalDate.now();
+        fromField.setText(today.minusDays(6).toString());
+        toField.setText(today.toString());
+        JButton showBtn = createStyledButton("Show Days", Color.decode("#932fba"));
+        showBtn.addActionListener(e -> showDays());
+        rangePanel.add(new JLabel("From (YYYY-MM-DD):"));
+        rangePanel.add(fromField);
+        rangePanel.add(new JLabel("To:"));
+        rangePanel.add(toField);
+        rangePanel.add(showBtn);
+        JLabel noteLabel = new JLabel("Saving replaces what is stored for each filled-in day."
+                + " Clearing a day does not delete it.");
+        noteLabel.setFont(new Font("Segoe UI", Font.ITALIC, 12));
+        rangePanel.add(noteLabel);
+        northPanel.add(rangePanel, BorderLayout.SOUTH);
+        add(northPanel, BorderLayout.NORTH);
+
+        table.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        table.setRowHeight(28);
+        table.getTableHeader().setReorderingAllowed(false);
+        table.setSurrendersFocusOnKeystroke(true);
+        TableColumnModel colModel = table.getColumnModel();
+        HoursRenderer hoursRenderer = new HoursRenderer();
+        for (int a = 0; a < RoutineEntry.ACTIVITIES; a++) {
+            colModel.getColumn(BackfillTableModel.COL_FIRST_HOURS + a).setCellRenderer(hoursRenderer);
+        }
+        colModel.getColumn(BackfillTableModel.COL_REMARKS).setPreferredWidth(200);
+        colModel.getColumn(BackfillTableModel.COL_STATUS).setPreferredWidth(220);
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
+        add(scrollPane, BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 15));
+        buttonPanel.setBackground(Color.WHITE);
+        saveBtn = createStyledButton("Save", Color.decode("#5e017d"));
+        JButton closeBtn = createStyledButton("Close", Color.decode("#932fba"));
+        saveBtn.addActionListener(e -> saveDays());
+        closeBtn.addActionListener(e -> dispose());
+        buttonPanel.add(saveBtn);
+        buttonPanel.add(closeBtn);
+        add(buttonPanel, BorderLayout.SOUTH);
+
+        showDays();
+    }
+
+    private JButton createStyledButton(String text, Color bgColor) {
+        JButton button = new JButton(text);
+        button.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        button.setBackground(bgColor);
+        button.setForeground(Color.WHITE);
+        button.setFocusPainted(false);
+        button.setBorder(BorderFactory.createEmptyBorder(8, 25, 8, 25));
+        button.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        return button;
+    }
+
+    private void showDays() {
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = LocalDate.parse(fromField.getText().trim());
+            to = LocalDate.parse(toField.getText().trim());
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this, "Invalid date format. Use YYYY-MM-DD.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (from.isAfter(to) || to.isAfter(LocalDate.now())) {
+            JOptionPane.showMessageDialog(this, "Choose a range that ends today or earlier.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            JOptionPane.showMessageDialog(this, "Backfill at most " + MAX_DAYS + " days at a time.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        RoutineCache cache = RoutineCache.of(userId);
+        cache.load(() -> {
+            Map<LocalDate, RoutineEntry> existing = new HashMap<>();
+            for (RoutineEntry entry : cache.series().slice(from, to)) {
+                existing.put(entry.date(), entry);
+            }
+            tableModel.showRange(from, to, existing);
+        }, ex -> JOptionPane.showMessageDialog(this, "Database error while loading routines: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void saveDays() {
+        if (table.isEditing() && !table.getCellEditor().stopCellEditing()) return;
+
+        List<RoutineEntry> changed = new ArrayList<>();
+        List<LocalDate> cleared = new ArrayList<>();
+        for (int row = 0; row < tableModel.getRowCount(); row++) {
+            BackfillTableModel.Day day = tableModel.day(row);
+            if (!day.isFilledIn()) {
+                if (day.shown != null) cleared.add(day.date);
+                continue;
+            }
+            RoutineEntry entry = day.toEntry(userId);
+            for (int a = 0; a < RoutineEntry.ACTIVITIES; a++) {
+                if (entry.hours(a) < 0) {
+                    JOptionPane.showMessageDialog(this, "Hours cannot be negative (" + day.date + ").", "Input Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+            }
+            if (!sameValues(entry, day.shown)) changed.add(entry);
+        }
+        for (LocalDate date : cleared) {
+            tableModel.day(date).status = "Not saved: cleared";
+        }
+        tableModel.fireTableDataChanged();
+        String skipped = cleared.isEmpty() ? "" : "\n" + cleared.size() + " logged day(s) were cleared and not saved;"
+                + " they keep their entries (delete them from the routine list instead): " + cleared;
+        if (changed.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Nothing to save." + skipped, "Info", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        saveBtn.setEnabled(false);
+        LocalDate from = changed.get(0).date();
+        LocalDate to = changed.get(changed.size() - 1).date();
+        DbExecutor.submit(this, () -> routines.findRange(userId, from, to), stored -> {
+            List<LocalDate> stale = changedSinceShown(changed, stored);
+            if (!stale.isEmpty()) {
+                int choice = JOptionPane.showConfirmDialog(this, stale.size() + " day(s) were changed elsewhere"
+                                + " after this grid was shown: " + stale + "\nSaving overwrites them with the values here."
+                                + " Overwrite them?", "Overwrite Changes?", JOptionPane.YES_NO_OPTION,
+                        JOptionPane.WARNING_MESSAGE);
+                if (choice != JOptionPane.YES_OPTION) {
+                    saveBtn.setEnabled(true);
+                    return;
+                }
+            }
+            upsert(changed, stale, skipped);
+        }, ex -> {
+            saveBtn.setEnabled(true);
+            JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage() + "\nNothing was saved.", "Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    private void upsert(List<RoutineEntry> changed, List<LocalDate> stale, String skipped) {
+        DbExecutor.submitWrite(this, () -> routines.upsert(userId, changed), saved -> {
+            saveBtn.setEnabled(true);
+            RoutineCache cache = RoutineCache.of(userId);
+            for (RoutineEntry entry : saved) {
+                BackfillTableModel.Day day = tableModel.day(entry.date());
+                if (day != null) {
+                    day.status = stale.contains(day.date) ? "Overwritten" : day.shown == null ? "Added" : "Updated";
+                    day.shown = entry;
+                }
+                cache.inserted(entry);
+            }
+            tableModel.fireTableDataChanged();
+            JOptionPane.showMessageDialog(this, "Saved " + saved.size() + " day(s) in one transaction." + skipped,
+                    "Success", JOptionPane.INFORMATION_MESSAGE);
+        }, ex -> {
+            saveBtn.setEnabled(true);
+            JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage() + "\nNothing was saved.", "Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    // Dates among entries whose stored values are no longer the ones the grid was filled from
+    private List<LocalDate> changedSinceShown(List<RoutineEntry> entries, Map<LocalDate, RoutineEntry> stored) {
+        List<LocalDate> stale = new ArrayList<>();
+        for (RoutineEntry entry : entries) {
+            if (!sameValues(stored.get(entry.date()), tableModel.day(entry.date()).shown)) stale.add(entry.date());
+        }
+        return stale;
+    }
+
+    // Same hours and remarks; null only matches null
+    private static boolean sameValues(RoutineEntry a, RoutineEntry b) {
+        if (a == null || b == null) return a == b;
+        for (int i = 0; i < RoutineEntry.ACTIVITIES; i++) {
+            if (Float.compare(a.hours(i), b.hours(i)) != 0) return false;
+        }
+        return Objects.equals(Objects.toString(a.remarks(), ""), Objects.toString(b.remarks(), ""));
+    }
+
+    // One editable row per day, oldest first. Empty hour cells are null and save as 0.
+    static class BackfillTableModel extends AbstractTableModel {
+        static final int COL_DATE = 0;
+        static final int COL_FIRST_HOURS = 1;
+        static final int COL_REMARKS = COL_FIRST_HOURS + RoutineEntry.ACTIVITIES;
+        static final int COL_STATUS = COL_REMARKS + 1;
+
+        private static final String[] COLUMNS = {
+                "Date", "Reading", "Prayer", "Bodybuilding", "Friend", "Gift", "Newspaper", "Remarks", "Status"
+        };
+
+        static class Day {
+            final LocalDate date;
+            final Float[] hours = new Float[RoutineEntry.ACTIVITIES];
+            String remarks = "";
+            // The entry the row was filled from, or last saved as; null for an empty day
+            RoutineEntry shown;
+            String status;
+
+            Day(LocalDate date, RoutineEntry existing) {
+                this.date = date;
+                shown = existing;
+                if (existing != null) {
+                    for (int a = 0; a < hours.length; a++) {
+                        hours[a] = existing.hours(a);
+                    }
+                    remarks = Objects.toString(existing.remarks(), "");
+                    status = "Logged";
+                }
+            }
+
+            boolean isFilledIn() {
+                for (Float h : hours) {
+                    if (h != null) return true;
+                }
+                return !remarks.isEmpty();
+            }
+
+            RoutineEntry toEntry(int userId) {
+                float[] values = new float[hours.length];
+                for (int a = 0; a < hours.length; a++) {
+                    values[a] = hours[a] == null ? 0 : hours[a];
+                }
+                return new RoutineEntry(0, userId, date, values[0], values[1], values[2], values[3], values[4],
+                        values[5], remarks);
+            }
+        }
+
+        private final List<Day> days = new ArrayList<>();
+
+        void showRange(LocalDate from, LocalDate to, Map<LocalDate, RoutineEntry> existing) {
+            days.clear();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                days.add(new Day(date, existing.get(date)));
+            }
+            fireTableDataChanged();
+        }
+
+        Day day(int row) {
+            return days.get(row);
+        }
+
+        Day day(LocalDate date) {
+            if (days.isEmpty()) return null;
+            int row = (int) ChronoUnit.DAYS.between(days.get(0).date, date);
+            return row >= 0 && row < days.size() ? days.get(row) : null;
+        }
+
+        @Override
+        public int getRowCount() {
+            return days.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            if (column == COL_DATE) return LocalDate.class;
+            if (column < COL_REMARKS) return Float.class;
+            return String.class;
+        }
+
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return column >= COL_FIRST_HOURS && column <= COL_REMARKS;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            Day day = days.get(row);
+            if (column == COL_DATE) return day.date;
+            if (column < COL_REMARKS) return day.hours[column - COL_FIRST_HOURS];
+            if (column == COL_REMARKS) return day.remarks;
+            return day.status;
+        }
+
+        @Override
+        public void setValueAt(Object value, int row, int column) {
+            Day day = days.get(row);
+            if (column == COL_REMARKS) {
+                day.remarks = value == null ? "" : value.toString().trim();
+            } else {
+                day.hours[column - COL_FIRST_HOURS] = (Float) value;
+            }
+            fireTableCellUpdated(row, column);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ui;
+
+import analytics.RoutineStats;
+import analytics.RoutineSummary;
+import db.RoutineDao;
+import db.RoutineEntry;
+import db.RoutineSeries;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// A signed-in user's routine_tracker rows, kept as a RoutineSeries together with the
+// RoutineStats derived from them. The history is read once, by whichever view wants it
+// first, and then serves every window until logout: the tracking tab and the routine
+// history slice the series instead of querying, and the summary reads the stats. The
+// windows that change routine_tracker report each change here after it is saved, and
+// it is patched into both. Changes saved while the history loads are replayed
+// afterwards; they carry whole rows, so replaying one the load already saw changes
+// nothing. Before the first load, changes are ignored, since the load will read them
+// anyway. EDT-confined.
+final class RoutineCache {
+    private static final Map<Integer, RoutineCache> BY_USER = new HashMap<>();
+
+    private final int userId;
+    private final RoutineDao routines = new RoutineDao();
+    private final RoutineStats stats = new RoutineStats();
+    private RoutineSeries series;
+    private final List<Runnable> listeners = new ArrayList<>();
+    private final List<Runnable> waiting = new ArrayList<>();
+    private final List<Consumer<? super Exception>> failing = new ArrayList<>();
+    // Non-null while the history is loading
+    private List<Runnable> replay;
+    private boolean loaded;
+
+    private RoutineCache(int userId) {
+        this.userId = userId;
+    }
+
+    static RoutineCache of(int userId) {
+        return BY_USER.computeIfAbsent(userId, RoutineCache::new);
+    }
+
+    // On logout; the next sign-in reads the history again
+    static void discard(int userId) {
+        BY_USER.remove(userId);
+    }
+
+    // Reads the history unless it is already held, then runs onLoaded. The read has no
+    // owner window: closing one window must not cancel a load others are waiting on.
+    void load(Runnable onLoaded, Consumer<? super Exception> onFailure) {
+        if (loaded) {
+            onLoaded.run();
+            return;
+        }
+        waiting.add(onLoaded);
+        failing.add(onFailure);
+        if (replay != null) return;
+
+        replay = new ArrayList<>();
+        DbExecutor.submit(null, () -> routines.findByUser(userId), history -> {
+            series = new RoutineSeries(userId, history);
+            stats.load(history);
+            replay.forEach(Runnable::run);
+            replay = null;
+            loaded = true;
+            List<Runnable> done = new ArrayList<>(waiting);
+            waiting.clear();
+            failing.clear();
+            done.forEach(Runnable::run);
+            changed();
+        }, ex -> {
+            replay = null;
+            List<Consumer<? super Exception>> failed = new ArrayList<>(failing);
+            waiting.clear();
+            failing.clear();
+            failed.forEach(callback -> callback.accept(ex));
+        });
+    }
+
+    // Every entry, or null until the history has loaded; read-only for callers
+    RoutineSeries series() {
+        return series;
+    }
+
+    // The figures as of today, or null until the history has loaded
+    RoutineSummary summary() {
+        return loaded ? stats.summary(LocalDate.now()) : null;
+    }
+
+    // Runs on the EDT after each change to the entries
+    void addChangeListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    void removeChangeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    void inserted(RoutineEntry entry) {
+        apply(() -> {
+            series.put(entry);
+            stats.put(entry);
+        });
+    }
+
+    // hours in RoutineEntry.hours order
+    void updated(int id, float[] hours, String remarks) {
+        float[] copy = hours.clone();
+        apply(() -> {
+            series.update(id, copy, remarks);
+            stats.update(id, copy);
+        });
+    }
+
+    void deleted(int id) {
+        apply(() -> {
+            series.remove(id);
+            stats.remove(id);
+        });
+    }
+
+    private void apply(Runnable change) {
+        if (replay != null) {
+            replay.add(change);
+        } else if (loaded) {
+            change.run();
+            changed();
+        }
+    }
+
+    private void changed() {
+        for (Runnable listener : new ArrayList<>(listeners)) {
+            listener.run();
+        }
+    }
+}
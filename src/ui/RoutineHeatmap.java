@@ -0,0 +1,271 @@
+package ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// A year of routine hours at a glance, GitHub style: a column per week with Monday on
+// top, each day shaded by its total hours. Days are drawn into tile images of
+// TILE_WEEKS columns, cached per cell size and theme colours, so repainting after
+// a resize or theme switch that was seen before only draws tiles, and anything else
+// renders the tiles once. setTotals redraws only the cells whose total changed, in
+// every cached tile. EDT-confined.
+class RoutineHeatmap extends JComponent {
+    static final int DAYS = 365;
+
+    private static final int TILE_WEEKS = 8;
+    private static final int GAP = 2;
+    private static final int MIN_CELL = 6;
+    private static final int MAX_CELL = 22;
+    private static final int LEFT = 34;
+    private static final int TOP = 20;
+    private static final int LEGEND_HEIGHT = 26;
+    private static final int CACHED_LAYOUTS = 4;
+    // A day reaches level i + 1 at LEVELS[i] total hours; level 0 is nothing logged
+    private static final float[] LEVELS = {0.05f, 2, 4, 6};
+    private static final Color ACCENT = Color.decode("#5e017d");
+    private static final String[] WEEKDAYS = {"Mon", "", "Wed", "", "Fri", "", ""};
+    private static final DateTimeFormatter TOOLTIP_DATE = DateTimeFormatter.ofPattern("EEE d MMM yyyy");
+
+    // Level 0 is blended from both colours, so both are part of the key
+    private record Layout(int cell, int background, int foreground) {}
+
+    private LocalDate first;
+    private long firstEpoch;
+    // Epoch day of the Monday on or before first; the top of column 0
+    private long gridStart;
+    private int weeks;
+    private float[] totals = new float[0];
+    private final Map<Layout, BufferedImage[]> tiles = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Layout, BufferedImage[]> eldest) {
+            return size() > CACHED_LAYOUTS;
+        }
+    };
+
+    RoutineHeatmap() {
+        ToolTipManager.sharedInstance().registerComponent(this);
+        setOpaque(true);
+        setFont(new Font("Segoe UI", Font.PLAIN, 11));
+        updateUI();
+    }
+
+    // totals[i] is the hours logged on from + i days. With the same range as before,
+    // only cells whose total changed are redrawn.
+    void setTotals(LocalDate from, float[] dayTotals) {
+        if (!from.equals(first) || dayTotals.length != totals.length) {
+            first = from;
+            firstEpoch = from.toEpochDay();
+            gridStart = firstEpoch - (from.getDayOfWeek().getValue() - 1);
+            weeks = (int) ((firstEpoch + dayTotals.length - 1 - gridStart) / 7) + 1;
+            totals = dayTotals.clone();
+            tiles.clear();
+            revalidate();
+            repaint();
+            return;
+        }
+        for (int day = 0; day < totals.length; day++) {
+            if (Float.compare(totals[day], dayTotals[day]) == 0) continue;
+            totals[day] = dayTotals[day];
+            for (Map.Entry<Layout, BufferedImage[]> cached : tiles.entrySet()) {
+                redrawCell(cached.getKey(), cached.getValue(), day);
+            }
+            repaint(cellBounds(day, cellSize()));
+        }
+    }
+
+    // Called by SwingUtilities.updateComponentTreeUI when the theme changes
+    @Override
+    public void updateUI() {
+        super.updateUI();
+        Color background = UIManager.getColor("Panel.background");
+        Color foreground = UIManager.getColor("Label.foreground");
+        setBackground(background != null ? background : Color.WHITE);
+        setForeground(foreground != null ? foreground : Color.BLACK);
+        repaint();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int pitch = 12 + GAP;
+        return new Dimension(LEFT + Math.max(weeks, 53) * pitch + GAP, TOP + 7 * pitch + LEGEND_HEIGHT);
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics.create();
+        try {
+            g.setColor(getBackground());
+            g.fillRect(0, 0, getWidth(), getHeight());
+            if (first == null) return;
+
+            int cell = cellSize();
+            int pitch = cell + GAP;
+            Layout layout = new Layout(cell, getBackground().getRGB(), getForeground().getRGB());
+            BufferedImage[] set = tiles.computeIfAbsent(layout, l -> new BufferedImage[tileCount()]);
+            Rectangle clip = g.getClipBounds();
+            int tileWidth = TILE_WEEKS * pitch;
+            for (int t = 0; t < set.length; t++) {
+                int x = LEFT + t * tileWidth;
+                if (clip != null && !clip.intersects(x, TOP, tileWidth, 7 * pitch)) continue;
+                if (set[t] == null) set[t] = renderTile(layout, t);
+                g.drawImage(set[t], x, TOP, null);
+            }
+            paintLabels(g, pitch);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        if (first == null) return null;
+        int pitch = cellSize() + GAP;
+        int x = e.getX() - LEFT;
+        int y = e.getY() - TOP;
+        if (x < 0 || y < 0 || x % pitch >= pitch - GAP || y % pitch >= pitch - GAP) return null;
+        int col = x / pitch;
+        int row = y / pitch;
+        if (row >= 7 || col >= weeks) return null;
+        int day = dayAt(col, row);
+        if (day < 0) return null;
+        return LocalDate.ofEpochDay(firstEpoch + day).format(TOOLTIP_DATE) + ": " + HoursRenderer.format(totals[day]);
+    }
+
+    private int cellSize() {
+        int available = getWidth() - LEFT - GAP;
+        return Math.max(MIN_CELL, Math.min(MAX_CELL, available / Math.max(1, weeks) - GAP));
+    }
+
+    private int tileCount() {
+        return (weeks + TILE_WEEKS - 1) / TILE_WEEKS;
+    }
+
+    // Index into totals of the day at col, row, or -1 outside the range
+    private int dayAt(int col, int row) {
+        long day = gridStart + col * 7L + row - firstEpoch;
+        return day >= 0 && day < totals.length ? (int) day : -1;
+    }
+
+    private Rectangle cellBounds(int day, int cell) {
+        int pitch = cell + GAP;
+        long offset = firstEpoch + day - gridStart;
+        return new Rectangle(LEFT + (int) (offset / 7) * pitch, TOP + (int) (offset % 7) * pitch, cell, cell);
+    }
+
+    private BufferedImage renderTile(Layout layout, int tile) {
+        int pitch = layout.cell() + GAP;
+        BufferedImage image = new BufferedImage(TILE_WEEKS * pitch, 7 * pitch, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            Color[] palette = palette(layout);
+            for (int c = 0; c < TILE_WEEKS; c++) {
+                for (int row = 0; row < 7; row++) {
+                    int day = dayAt(tile * TILE_WEEKS + c, row);
+                    if (day < 0) continue;
+                    fillCell(g, palette[level(totals[day])], c * pitch, row * pitch, layout.cell());
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private void redrawCell(Layout layout, BufferedImage[] set, int day) {
+        long offset = firstEpoch + day - gridStart;
+        int col = (int) (offset / 7);
+        BufferedImage image = set[col / TILE_WEEKS];
+        if (image == null) return;
+        int pitch = layout.cell() + GAP;
+        int x = (col % TILE_WEEKS) * pitch;
+        int y = (int) (offset % 7) * pitch;
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(x, y, layout.cell(), layout.cell());
+            g.setComposite(AlphaComposite.SrcOver);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            fillCell(g, palette(layout)[level(totals[day])], x, y, layout.cell());
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static void fillCell(Graphics2D g, Color color, int x, int y, int cell) {
+        g.setColor(color);
+        int arc = Math.max(2, cell / 3);
+        g.fillRoundRect(x, y, cell, cell, arc, arc);
+    }
+
+    private static int level(float hours) {
+        int level = 0;
+        while (level < LEVELS.length && hours >= LEVELS[level]) level++;
+        return level;
+    }
+
+    private static Color[] palette(Layout layout) {
+        return palette(new Color(layout.background()), new Color(layout.foreground()));
+    }
+
+    // Level 0 is a faint cell on the background, the rest step towards the accent colour
+    private static Color[] palette(Color background, Color foreground) {
+        Color[] palette = new Color[LEVELS.length + 1];
+        palette[0] = blend(background, foreground, 0.1f);
+        for (int level = 1; level < palette.length; level++) {
+            palette[level] = blend(background, ACCENT, 0.25f + 0.75f * level / LEVELS.length);
+        }
+        return palette;
+    }
+
+    private static Color blend(Color from, Color to, float amount) {
+        return new Color(
+                Math.round(from.getRed() + (to.getRed() - from.getRed()) * amount),
+                Math.round(from.getGreen() + (to.getGreen() - from.getGreen()) * amount),
+                Math.round(from.getBlue() + (to.getBlue() - from.getBlue()) * amount));
+    }
+
+    // Weekday and month names, and the legend below the grid
+    private void paintLabels(Graphics2D g, int pitch) {
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(getFont());
+        g.setColor(getForeground());
+        FontMetrics metrics = g.getFontMetrics();
+        int baseline = (pitch - GAP + metrics.getAscent() - metrics.getDescent()) / 2;
+        for (int row = 0; row < 7; row++) {
+            g.drawString(WEEKDAYS[row], 2, TOP + row * pitch + baseline);
+        }
+
+        // Over the column holding the 1st of each month, and over the first column
+        int lastMonth = -1;
+        for (int col = 0; col < weeks; col++) {
+            int top = Math.max(0, dayAt(col, 0));
+            LocalDate date = LocalDate.ofEpochDay(firstEpoch + top);
+            if (date.getMonthValue() != lastMonth && (col == 0 || date.getDayOfMonth() <= 7)) {
+                lastMonth = date.getMonthValue();
+                g.drawString(date.getMonth().getDisplayName(TextStyle.SHORT, Locale.getDefault()),
+                        LEFT + col * pitch, TOP - 6);
+            }
+        }
+
+        Color[] palette = palette(getBackground(), getForeground());
+        int y = TOP + 7 * pitch + 8;
+        int x = LEFT;
+        g.drawString("Less", x, y + metrics.getAscent() - 2);
+        x += metrics.stringWidth("Less") + 6;
+        for (Color color : palette) {
+            fillCell(g, color, x, y, 10);
+            x += 10 + GAP;
+        }
+        g.setColor(getForeground());
+        g.drawString("More", x + 4, y + metrics.getAscent() - 2);
+    }
+}
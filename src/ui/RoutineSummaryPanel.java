@@ -0,0 +1,101 @@
+package ui;
+
+import analytics.RoutineSummary;
+import db.RoutineEntry;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+
+// Rolling averages, week-over-week change and streaks per activity, read from the
+// user's RoutineCache. A refresh only copies the precomputed figures into labels.
+class RoutineSummaryPanel extends JPanel {
+    private static final String[] ACTIVITY_NAMES = {
+            "Reading", "Prayer", "Bodybuilding", "Friend Connection", "Gift Giving", "Newspaper"
+    };
+    private static final String[] HEADERS = {
+            "Activity", "7-Day Avg", "30-Day Avg", "90-Day Avg", "This Week", "vs Last Week",
+            "Current Streak", "Best Streak"
+    };
+    private static final Color UP = new Color(0x1b7a32);
+    private static final Color DOWN = new Color(0xb00020);
+
+    private final RoutineCache cache;
+    private final Runnable cacheListener = this::refresh;
+    // [activity][column], the figure columns of HEADERS
+    private final JLabel[][] cells = new JLabel[RoutineEntry.ACTIVITIES][HEADERS.length - 1];
+    private final JLabel footer = new JLabel(" ");
+
+    RoutineSummaryPanel(RoutineCache cache) {
+        this.cache = cache;
+        setLayout(new BorderLayout());
+        setBackground(Color.WHITE);
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JPanel grid = new JPanel(new GridLayout(RoutineEntry.ACTIVITIES + 1, HEADERS.length, 12, 10));
+        grid.setBackground(Color.WHITE);
+        for (String header : HEADERS) {
+            JLabel label = new JLabel(header);
+            label.setFont(new Font("Segoe UI", Font.BOLD, 14));
+            label.setForeground(Color.decode("#5e017d"));
+            grid.add(label);
+        }
+        for (int a = 0; a < RoutineEntry.ACTIVITIES; a++) {
+            JLabel name = new JLabel(ACTIVITY_NAMES[a]);
+            name.setFont(new Font("Segoe UI", Font.BOLD, 14));
+            grid.add(name);
+            for (int c = 0; c < cells[a].length; c++) {
+                cells[a][c] = new JLabel("-");
+                cells[a][c].setFont(new Font("Segoe UI", Font.PLAIN, 14));
+                grid.add(cells[a][c]);
+            }
+        }
+        add(grid, BorderLayout.NORTH);
+
+        footer.setFont(new Font("Segoe UI", Font.ITALIC, 12));
+        footer.setForeground(new Color(0x777777));
+        add(footer, BorderLayout.SOUTH);
+
+        cache.addChangeListener(cacheListener);
+        // Also on every reshow, so the windows move on once the date has changed
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && isShowing()) refresh();
+        });
+    }
+
+    void refresh() {
+        RoutineSummary summary = cache.summary();
+        if (summary == null) return;
+        for (int a = 0; a < RoutineEntry.ACTIVITIES; a++) {
+            JLabel[] row = cells[a];
+            int c = 0;
+            for (int w = 0; w < RoutineSummary.AVERAGE_WINDOWS.length; w++) {
+                row[c++].setText(HoursRenderer.format(summary.average(w, a)));
+            }
+            row[c++].setText(HoursRenderer.format(summary.weekTotal(a)));
+
+            float delta = summary.weekOverWeek(a);
+            JLabel change = row[c++];
+            if (Math.round(delta * 10) == 0) {
+                change.setText("no change");
+                change.setForeground(getForeground());
+            } else {
+                change.setText((delta > 0 ? "+" : "-") + HoursRenderer.format(Math.abs(delta)));
+                change.setForeground(delta > 0 ? UP : DOWN);
+            }
+
+            row[c++].setText(days(summary.currentStreak(a)));
+            row[c].setText(days(summary.longestStreak(a)));
+        }
+        footer.setText("Based on " + summary.entries() + " logged day(s), as of " + summary.asOf());
+    }
+
+    // Stops following the cache, which outlives the window this panel is in
+    void detach() {
+        cache.removeChangeListener(cacheListener);
+    }
+
+    private static String days(int count) {
+        return count == 1 ? "1 day" : count + " days";
+    }
+}
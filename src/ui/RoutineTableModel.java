@@ -0,0 +1,167 @@
+package ui;
+
+import db.RoutineEntry;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// routine_tracker rows held column by column in primitive arrays: ids, dates as
+// epoch days and one float[] per activity, so a loaded history costs a few bytes per
+// cell instead of a boxed object each. Values are boxed only when a cell is painted,
+// and HoursRenderer does the "2.5 hrs" formatting.
+public class RoutineTableModel extends BulkTableModel<RoutineEntry> {
+    static final int ACTIVITIES = RoutineEntry.ACTIVITIES;
+
+    // Logical fields; with actions they are also the column indexes
+    static final int COL_ID = 0;
+    static final int COL_DATE = 1;
+    static final int COL_FIRST_HOURS = 2;
+    static final int COL_REMARKS = COL_FIRST_HOURS + ACTIVITIES;
+    static final int COL_EDIT = COL_REMARKS + 1;
+    static final int COL_DELETE = COL_REMARKS + 2;
+
+    private static final String[] HISTORY_COLUMNS = {
+            "ID", "Date", "Reading", "Prayer", "Bodybuilding", "Friend", "Gift", "Newspaper", "Remarks", "Edit", "Delete"
+    };
+    private static final String[] SUMMARY_COLUMNS = {
+            "Date", "Reading Hours", "Prayer Hours", "Bodybuilding Hours",
+            "Friend Connection Hours", "Gift Giving Hours", "Newspaper Hours", "Remarks"
+    };
+    // The history list shows only the start of long remarks
+    private static final int REMARKS_PREVIEW = 20;
+
+    private final boolean withActions;
+    private int[] ids = new int[0];
+    private int[] epochDays = new int[0];
+    private final float[][] hours = new float[ACTIVITIES][0];
+    private String[] remarks = new String[0];
+
+    // withActions: the editable history layout with ID, Edit and Delete columns and
+    // shortened remarks; otherwise the read-only dashboard layout
+    public RoutineTableModel(boolean withActions) {
+        this.withActions = withActions;
+    }
+
+    @Override
+    protected void resize(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        for (int a = 0; a < ACTIVITIES; a++) {
+            hours[a] = Arrays.copyOf(hours[a], capacity);
+        }
+        remarks = Arrays.copyOf(remarks, capacity);
+    }
+
+    @Override
+    protected void store(int row, RoutineEntry entry) {
+        ids[row] = entry.id();
+        epochDays[row] = (int) entry.date().toEpochDay();
+        hours[0][row] = entry.readingHours();
+        hours[1][row] = entry.prayerHours();
+        hours[2][row] = entry.bodybuildingHours();
+        hours[3][row] = entry.friendConnectionHours();
+        hours[4][row] = entry.giftGivingHours();
+        hours[5][row] = entry.newspaperHours();
+        remarks[row] = entry.remarks();
+    }
+
+    @Override
+    protected void release(int from, int to) {
+        Arrays.fill(remarks, from, to, null);
+    }
+
+    public int getId(int row) {
+        return ids[checkRow(row)];
+    }
+
+    public LocalDate getDate(int row) {
+        return LocalDate.ofEpochDay(epochDays[checkRow(row)]);
+    }
+
+    // activity 0..5 in table order: reading, prayer, bodybuilding, friend, gift, newspaper
+    public float getHours(int row, int activity) {
+        return hours[activity][checkRow(row)];
+    }
+
+    public String getRemarks(int row) {
+        return remarks[checkRow(row)];
+    }
+
+    // Writes an edit back into the row; activityHours is in getHours order
+    public void updateRow(int row, float[] activityHours, String newRemarks) {
+        checkRow(row);
+        for (int a = 0; a < ACTIVITIES; a++) {
+            hours[a][row] = activityHours[a];
+        }
+        remarks[row] = newRemarks;
+        fireTableRowsUpdated(row, row);
+    }
+
+    public void removeRow(int row) {
+        checkRow(row);
+        int tail = size - row - 1;
+        System.arraycopy(ids, row + 1, ids, row, tail);
+        System.arraycopy(epochDays, row + 1, epochDays, row, tail);
+        for (float[] column : hours) {
+            System.arraycopy(column, row + 1, column, row, tail);
+        }
+        System.arraycopy(remarks, row + 1, remarks, row, tail);
+        remarks[--size] = null;
+        fireTableRowsDeleted(row, row);
+    }
+
+    // Row index of the entry with this id, or -1
+    public int indexOf(int id) {
+        for (int row = 0; row < size; row++) {
+            if (ids[row] == id) return row;
+        }
+        return -1;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return withActions ? HISTORY_COLUMNS.length : SUMMARY_COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return withActions ? HISTORY_COLUMNS[column] : SUMMARY_COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        int field = field(column);
+        if (field == COL_ID) return Integer.class;
+        if (field == COL_DATE) return LocalDate.class;
+        if (field < COL_REMARKS) return Float.class;
+        return String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return withActions && (column == COL_EDIT || column == COL_DELETE);
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int field = field(column);
+        switch (field) {
+            case COL_ID: return ids[row];
+            case COL_DATE: return LocalDate.ofEpochDay(epochDays[row]);
+            case COL_REMARKS:
+                String text = remarks[row];
+                if (withActions && text != null && text.length() > REMARKS_PREVIEW) {
+                    return text.substring(0, REMARKS_PREVIEW) + "...";
+                }
+                return text;
+            case COL_EDIT: return "Edit";
+            case COL_DELETE: return "Delete";
+            default: return hours[field - COL_FIRST_HOURS][row];
+        }
+    }
+
+    // The dashboard layout has no ID column, so its columns sit one field to the left
+    private int field(int column) {
+        return withActions ? column : column + 1;
+    }
+}
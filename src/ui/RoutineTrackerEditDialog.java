@@ -1,5 +1,7 @@
 package ui;
 
+import db.RoutineEntry;
+
 import javax.swing.*;
 import java.awt.*;
 
@@ -10,16 +12,12 @@ public class RoutineTrackerEditDialog extends JDialog {
 
     private ui.RoutineTrackerListView parentListView;
     private int routineId;
-    private int rowIndex;
 
-    public RoutineTrackerEditDialog(ui.RoutineTrackerListView parent, int routineId,
-                                    float reading, float prayer, float bodybuilding,
-                                    float friend, float gift, float newspaper,
-                                    String remarks, int rowIndex) {
+    // entry is the row as the list holds it, full remarks included
+    public RoutineTrackerEditDialog(ui.RoutineTrackerListView parent, RoutineEntry entry) {
         super(parent, "Edit Routine Entry", true);
         this.parentListView = parent;
-        this.routineId = routineId;
-        this.rowIndex = rowIndex;
+        this.routineId = entry.id();
 
         setSize(450, 500);
         setLocationRelativeTo(parent);
@@ -44,12 +42,12 @@ public class RoutineTrackerEditDialog extends JDialog {
         gbc.anchor = GridBagConstraints.WEST;
 
         int y = 0;
-        addField(formPanel, gbc, y++, "Reading Hours:", readingField = createStyledTextField(String.valueOf(reading)));
-        addField(formPanel, gbc, y++, "Prayer Hours:", prayerField = createStyledTextField(String.valueOf(prayer)));
-        addField(formPanel, gbc, y++, "Bodybuilding Hours:", bodybuildingField = createStyledTextField(String.valueOf(bodybuilding)));
-        addField(formPanel, gbc, y++, "Friend Connection Hours:", friendField = createStyledTextField(String.valueOf(friend)));
-        addField(formPanel, gbc, y++, "Gift Giving Hours:", giftField = createStyledTextField(String.valueOf(gift)));
-        addField(formPanel, gbc, y++, "Newspaper Reading Hours:", newspaperField = createStyledTextField(String.valueOf(newspaper)));
+        addField(formPanel, gbc, y++, "Reading Hours:", readingField = createStyledTextField(String.valueOf(entry.readingHours())));
+        addField(formPanel, gbc, y++, "Prayer Hours:", prayerField = createStyledTextField(String.valueOf(entry.prayerHours())));
+        addField(formPanel, gbc, y++, "Bodybuilding Hours:", bodybuildingField = createStyledTextField(String.valueOf(entry.bodybuildingHours())));
+        addField(formPanel, gbc, y++, "Friend Connection Hours:", friendField = createStyledTextField(String.valueOf(entry.friendConnectionHours())));
+        addField(formPanel, gbc, y++, "Gift Giving Hours:", giftField = createStyledTextField(String.valueOf(entry.giftGivingHours())));
+        addField(formPanel, gbc, y++, "Newspaper Reading Hours:", newspaperField = createStyledTextField(String.valueOf(entry.newspaperHours())));
 
         gbc.gridx = 0;
         gbc.gridy = y++;
@@ -57,7 +55,7 @@ public class RoutineTrackerEditDialog extends JDialog {
         formPanel.add(new JLabel("Remarks:"), gbc);
 
         remarksArea = new JTextArea(4, 25);
-        remarksArea.setText(remarks);
+        remarksArea.setText(entry.remarks());
         remarksArea.setLineWrap(true);
         remarksArea.setWrapStyleWord(true);
         JScrollPane scrollPane = new JScrollPane(remarksArea);
@@ -132,7 +130,7 @@ public class RoutineTrackerEditDialog extends JDialog {
                 return;
             }
 
-            parentListView.updateRoutine(routineId, reading, prayer, bodybuilding, friend, gift, newspaper, remarks, rowIndex);
+            parentListView.updateRoutine(routineId, reading, prayer, bodybuilding, friend, gift, newspaper, remarks);
             dispose();
 
         } catch (NumberFormatException ex) {
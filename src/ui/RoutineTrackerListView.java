@@ -1,17 +1,36 @@
 package ui;
 
-import db.DBConnection;
+import db.RoutineDao;
+import db.RoutineEntry;
 
 import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.*;
-import java.sql.*;
-import java.util.Vector;
+import java.util.HashMap;
+import java.util.Map;
 
 public class RoutineTrackerListView extends JFrame {
     private final int userId;
     private JTable routineTable;
-    private DefaultTableModel tableModel;
+    private RoutineTableModel tableModel;
+    private final RoutineDao routines = new RoutineDao();
+    // Entries with a write in flight, by id
+    private final Map<Integer, PendingEdits> pendingEdits = new HashMap<>();
+
+    private record Edit(float[] hours, String remarks) {}
+
+    private static final class PendingEdits {
+        // Values the database is known to hold
+        Edit saved;
+        // Latest edit made while a write was in flight
+        Edit queued;
+        // Deleted while a write was in flight; the delete goes out once it is done
+        boolean deleteAfter;
+
+        PendingEdits(Edit saved) {
+            this.saved = saved;
+        }
+    }
 
     public RoutineTrackerListView(int userId) {
         this.userId = userId;
@@ -34,25 +53,10 @@ public class RoutineTrackerListView extends JFrame {
         add(headerPanel, BorderLayout.NORTH);
 
         // Table setup
-        tableModel = new DefaultTableModel() {
-            // Makes all cells non-editable except buttons handled separately
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == getColumnCount() - 2 || column == getColumnCount() - 1;
-            }
-
-            // Set proper class for Edit/Delete button columns
-            @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                if (columnIndex == getColumnCount() - 2 || columnIndex == getColumnCount() - 1) {
-                    return JButton.class; // We use buttons in these columns
-                }
-                return super.getColumnClass(columnIndex);
-            }
-        };
+        // Only the Edit/Delete button columns are editable
+        tableModel = new RoutineTableModel(true);
 
         routineTable = new JTable(tableModel);
-        initializeTableColumns();
         styleTable();
 
         // Add scroll pane
@@ -73,11 +77,6 @@ public class RoutineTrackerListView extends JFrame {
         setVisible(true);
     }
 
-    private void initializeTableColumns() {
-        String[] columns = {"ID", "Date", "Reading", "Prayer", "Bodybuilding", "Friend", "Gift", "Newspaper", "Remarks", "Edit", "Delete"};
-        tableModel.setColumnIdentifiers(columns);
-    }
-
     private void styleTable() {
         routineTable.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         routineTable.setRowHeight(35);
@@ -96,108 +95,136 @@ public class RoutineTrackerListView extends JFrame {
         for (int i = 0; i < colWidths.length; i++) {
             colModel.getColumn(i).setPreferredWidth(colWidths[i]);
         }
+        // Hours are stored as floats and formatted only when painted
+        HoursRenderer hoursRenderer = new HoursRenderer();
+        for (int a = 0; a < RoutineTableModel.ACTIVITIES; a++) {
+            colModel.getColumn(RoutineTableModel.COL_FIRST_HOURS + a).setCellRenderer(hoursRenderer);
+        }
+        // Left-aligned like the other text columns
+        DefaultTableCellRenderer textRenderer = new DefaultTableCellRenderer();
+        colModel.getColumn(RoutineTableModel.COL_ID).setCellRenderer(textRenderer);
+        colModel.getColumn(RoutineTableModel.COL_DATE).setCellRenderer(textRenderer);
     }
 
+    // Served from the user's RoutineCache; only the first view after sign-in queries
     private void fetchRoutineData() {
-        tableModel.setRowCount(0); // Clear existing data
-        String sql = "SELECT * FROM routine_tracker WHERE user_id = ? ORDER BY date DESC";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, userId);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    int id = rs.getInt("id");
-                    Date date = rs.getDate("date");
-                    float reading = rs.getFloat("reading_hours");
-                    float prayer = rs.getFloat("prayer_hours");
-                    float bodybuilding = rs.getFloat("bodybuilding_hours");
-                    float friend = rs.getFloat("friend_connection_hours");
-                    float gift = rs.getFloat("gift_giving_hours");
-                    float newspaper = rs.getFloat("newspaper_hours");
-                    String remarks = rs.getString("remarks");
-
-                    Vector<Object> row = new Vector<>();
-                    row.add(id);
-                    row.add(date.toString());
-                    row.add(String.format("%.1f hrs", reading));
-                    row.add(String.format("%.1f hrs", prayer));
-                    row.add(String.format("%.1f hrs", bodybuilding));
-                    row.add(String.format("%.1f hrs", friend));
-                    row.add(String.format("%.1f hrs", gift));
-                    row.add(String.format("%.1f hrs", newspaper));
-                    // Shorten remarks if long
-                    row.add(remarks != null && remarks.length() > 20 ? remarks.substring(0, 20) + "..." : remarks);
-                    row.add("Edit");
-                    row.add("Delete");
-
-                    tableModel.addRow(row);
-                }
-            }
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Database error while loading routines: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        RoutineCache cache = RoutineCache.of(userId);
+        cache.load(() -> tableModel.setRows(cache.series().all()), ex -> JOptionPane.showMessageDialog(this, "Database error while loading routines: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
     }
 
-    // Method to update routine entry in the DB and table
+    // Applies an edit to the table at once and writes it in the background. Writes for
+    // one entry go out one at a time, and edits made meanwhile wait and only the latest
+    // is sent. If a write fails with a newer edit waiting, that edit is sent instead, as
+    // it replaces every value anyway; otherwise the entry goes back to the values last
+    // saved.
     public void updateRoutine(int routineId, float reading, float prayer, float bodybuilding,
-                              float friend, float gift, float newspaper, String remarks, int rowIndex) {
-        String sql = "UPDATE routine_tracker SET reading_hours=?, prayer_hours=?, bodybuilding_hours=?, " +
-                "friend_connection_hours=?, gift_giving_hours=?, newspaper_hours=?, remarks=? WHERE id=?";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setFloat(1, reading);
-            stmt.setFloat(2, prayer);
-            stmt.setFloat(3, bodybuilding);
-            stmt.setFloat(4, friend);
-            stmt.setFloat(5, gift);
-            stmt.setFloat(6, newspaper);
-            stmt.setString(7, remarks);
-            stmt.setInt(8, routineId);
-
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
-                // Update table model with formatted values
-                tableModel.setValueAt(String.format("%.1f hrs", reading), rowIndex, 2);
-                tableModel.setValueAt(String.format("%.1f hrs", prayer), rowIndex, 3);
-                tableModel.setValueAt(String.format("%.1f hrs", bodybuilding), rowIndex, 4);
-                tableModel.setValueAt(String.format("%.1f hrs", friend), rowIndex, 5);
-                tableModel.setValueAt(String.format("%.1f hrs", gift), rowIndex, 6);
-                tableModel.setValueAt(String.format("%.1f hrs", newspaper), rowIndex, 7);
-                tableModel.setValueAt(remarks.length() > 20 ? remarks.substring(0, 20) + "..." : remarks, rowIndex, 8);
-
-                JOptionPane.showMessageDialog(this, "Routine updated successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this, "Could not update routine.", "Update Error", JOptionPane.ERROR_MESSAGE);
-            }
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Database error during update: " + ex.getMessage(), "Update Failed", JOptionPane.ERROR_MESSAGE);
+                              float friend, float gift, float newspaper, String remarks) {
+        int row = tableModel.indexOf(routineId);
+        if (row < 0) return;
+        Edit edit = new Edit(new float[]{reading, prayer, bodybuilding, friend, gift, newspaper}, remarks);
+        PendingEdits pending = pendingEdits.get(routineId);
+        if (pending != null && pending.deleteAfter) return;
+        if (pending == null) {
+            pendingEdits.put(routineId, new PendingEdits(currentValues(row)));
+            write(routineId, edit);
+        } else {
+            pending.queued = edit;
+        }
+        show(routineId, edit);
+    }
+
+    private void write(int routineId, Edit edit) {
+        float[] h = edit.hours();
+        DbExecutor.submitWrite(this, () -> routines.update(routineId, h[0], h[1], h[2], h[3], h[4], h[5], edit.remarks()),
+                updated -> {
+                    PendingEdits pending = pendingEdits.get(routineId);
+                    if (!updated) {
+                        pendingEdits.remove(routineId);
+                        int row = tableModel.indexOf(routineId);
+                        if (row >= 0) tableModel.removeRow(row);
+                        RoutineCache.of(userId).deleted(routineId);
+                        // Gone already is what a pending delete wanted
+                        if (!pending.deleteAfter) showWriteError("This routine entry no longer exists.");
+                    } else if (pending.deleteAfter) {
+                        pendingEdits.remove(routineId);
+                        delete(routineId);
+                    } else if (pending.queued != null) {
+                        Edit next = pending.queued;
+                        pending.saved = edit;
+                        pending.queued = null;
+                        write(routineId, next);
+                    } else {
+                        pendingEdits.remove(routineId);
+                    }
+                }, ex -> {
+                    PendingEdits pending = pendingEdits.get(routineId);
+                    if (pending.deleteAfter) {
+                        pendingEdits.remove(routineId);
+                        show(routineId, pending.saved);
+                        delete(routineId);
+                    } else if (pending.queued != null) {
+                        Edit next = pending.queued;
+                        pending.queued = null;
+                        write(routineId, next);
+                    } else {
+                        pendingEdits.remove(routineId);
+                        show(routineId, pending.saved);
+                        showWriteError("Database error during update: " + ex.getMessage() + "\nThe change was undone.");
+                    }
+                });
+    }
+
+    private Edit currentValues(int row) {
+        float[] hours = new float[RoutineTableModel.ACTIVITIES];
+        for (int a = 0; a < hours.length; a++) {
+            hours[a] = tableModel.getHours(row, a);
         }
+        return new Edit(hours, tableModel.getRemarks(row));
     }
 
-    // Method to delete routine entry from DB and table
-    public void deleteRoutine(int routineId, int rowIndex) {
-        String sql = "DELETE FROM routine_tracker WHERE id = ?";
+    // Puts values into the table row, if still listed, and into the shared cache
+    private void show(int routineId, Edit edit) {
+        int row = tableModel.indexOf(routineId);
+        if (row >= 0) tableModel.updateRow(row, edit.hours(), edit.remarks());
+        RoutineCache.of(userId).updated(routineId, edit.hours(), edit.remarks());
+    }
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    private void showWriteError(String message) {
+        if (isDisplayable()) {
+            JOptionPane.showMessageDialog(this, message, "Update Failed", JOptionPane.ERROR_MESSAGE);
+        }
+    }
 
-            stmt.setInt(1, routineId);
+    // Deletes a routine entry from the DB and the table. With an update of it in flight,
+    // the delete waits for that write, so the two cannot cross.
+    public void deleteRoutine(int routineId) {
+        PendingEdits pending = pendingEdits.get(routineId);
+        if (pending != null) {
+            pending.queued = null;
+            pending.deleteAfter = true;
+            return;
+        }
+        delete(routineId);
+    }
 
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
-                tableModel.removeRow(rowIndex);
+    private void delete(int routineId) {
+        DbExecutor.submitWrite(this, () -> routines.delete(routineId), deleted -> {
+            if (deleted) {
+                int row = tableModel.indexOf(routineId);
+                if (row >= 0) tableModel.removeRow(row);
+                RoutineCache.of(userId).deleted(routineId);
                 JOptionPane.showMessageDialog(this, "Routine deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
             } else {
                 JOptionPane.showMessageDialog(this, "Could not delete routine.", "Deletion Error", JOptionPane.ERROR_MESSAGE);
             }
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Database error during deletion: " + ex.getMessage(), "Deletion Failed", JOptionPane.ERROR_MESSAGE);
-        }
+        }, ex -> JOptionPane.showMessageDialog(this, "Database error during deletion: " + ex.getMessage(), "Deletion Failed", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private RoutineEntry entryAt(int row) {
+        return new RoutineEntry(tableModel.getId(row), userId, tableModel.getDate(row),
+                tableModel.getHours(row, 0), tableModel.getHours(row, 1), tableModel.getHours(row, 2),
+                tableModel.getHours(row, 3), tableModel.getHours(row, 4), tableModel.getHours(row, 5),
+                tableModel.getRemarks(row));
     }
 
     // Button Renderer class to render buttons inside table cells
@@ -257,68 +284,28 @@ public class RoutineTrackerListView extends JFrame {
         @Override
         public Object getCellEditorValue() {
             if (isPushed) {
-                try {
-                    Object idObj = table.getModel().getValueAt(row, 0);
-                    if (idObj == null) {
-                        throw new NumberFormatException("ID column is null");
-                    }
-                    int routineId = Integer.parseInt(idObj.toString());
+                if (row < tableModel.getRowCount()) {
+                    int routineId = tableModel.getId(row);
                     String action = button.getActionCommand();
 
                     if ("Edit".equals(action)) {
-                        // Parse hours stripping 'hrs' suffix
-                        float reading = parseHours(table.getModel().getValueAt(row, 2).toString());
-                        float prayer = parseHours(table.getModel().getValueAt(row, 3).toString());
-                        float bodybuilding = parseHours(table.getModel().getValueAt(row, 4).toString());
-                        float friend = parseHours(table.getModel().getValueAt(row, 5).toString());
-                        float gift = parseHours(table.getModel().getValueAt(row, 6).toString());
-                        float newspaper = parseHours(table.getModel().getValueAt(row, 7).toString());
-
-                        // Retrieve full remarks from DB for editing
-                        String fullRemarks = fetchFullRemarks(routineId);
-
-                        // Show edit dialog
-                        RoutineTrackerEditDialog editDialog = new RoutineTrackerEditDialog(
-                                routineListView, routineId, reading, prayer, bodybuilding, friend, gift, newspaper, fullRemarks, row);
-                        editDialog.setVisible(true);
+                        // The model holds the whole row, full remarks included; the modal
+                        // dialog opens once this edit has stopped
+                        RoutineEntry entry = entryAt(row);
+                        SwingUtilities.invokeLater(() -> new RoutineTrackerEditDialog(routineListView, entry).setVisible(true));
 
                     } else if ("Delete".equals(action)) {
                         int confirm = JOptionPane.showConfirmDialog(button, "Delete this routine entry?", "Confirm Delete", JOptionPane.YES_NO_OPTION);
                         if (confirm == JOptionPane.YES_OPTION) {
-                            routineListView.deleteRoutine(routineId, row);
+                            routineListView.deleteRoutine(routineId);
                         }
                     }
-
-                } catch (NumberFormatException ex) {
-                    JOptionPane.showMessageDialog(button, "Invalid routine ID format.", "Error", JOptionPane.ERROR_MESSAGE);
                 }
             }
             isPushed = false;
             return label;
         }
 
-        private float parseHours(String text) {
-            if (text == null) return 0;
-            return Float.parseFloat(text.replace(" hrs", "").trim());
-        }
-
-        private String fetchFullRemarks(int routineId) {
-            String remarks = "";
-            String sql = "SELECT remarks FROM routine_tracker WHERE id = ?";
-            try (Connection conn = DBConnection.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setInt(1, routineId);
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        remarks = rs.getString("remarks");
-                    }
-                }
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
-            return remarks;
-        }
-
         @Override
         public boolean stopCellEditing() {
             isPushed = false;
@@ -1,12 +1,9 @@
 package ui;
 
-import db.DBConnection;
+import db.RoutineDao;
 
 import javax.swing.*;
 import java.awt.*;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.time.LocalDate;
 
 public class RoutineTrackerPanel extends JPanel {
@@ -17,6 +14,7 @@ public class RoutineTrackerPanel extends JPanel {
     private JTextField longTermGoalField;
     private JTextArea reflectionArea;
     private JButton saveBtn;
+    private final RoutineDao routines = new RoutineDao();
 
     public RoutineTrackerPanel(int userId) {
         this.userId = userId;
@@ -85,28 +83,20 @@ public class RoutineTrackerPanel extends JPanel {
             return;
         }
 
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "INSERT INTO routine_logs (user_id, task, short_term_goal, long_term_goal, reflection, log_date) VALUES (?, ?, ?, ?, ?, ?)";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setInt(1, userId);
-                pstmt.setString(2, dailyTask);
-                pstmt.setString(3, shortGoal);
-                pstmt.setString(4, longGoal);
-                pstmt.setString(5, reflection);
-                pstmt.setDate(6, java.sql.Date.valueOf(LocalDate.now()));
-
-                pstmt.executeUpdate();
-
-                JOptionPane.showMessageDialog(this, "Daily entry saved!", "Success", JOptionPane.INFORMATION_MESSAGE);
-
-                // Clear fields after save
-                dailyTaskField.setText("");
-                shortTermGoalField.setText("");
-                longTermGoalField.setText("");
-                reflectionArea.setText("");
-            }
-        } catch (SQLException ex) {
+        saveBtn.setEnabled(false);
+        DbExecutor.submitWrite(this, () -> routines.insertLog(userId, dailyTask, shortGoal, longGoal, reflection,
+                LocalDate.now()), saved -> {
+            saveBtn.setEnabled(true);
+            JOptionPane.showMessageDialog(this, "Daily entry saved!", "Success", JOptionPane.INFORMATION_MESSAGE);
+
+            // Clear fields after save
+            dailyTaskField.setText("");
+            shortTermGoalField.setText("");
+            longTermGoalField.setText("");
+            reflectionArea.setText("");
+        }, ex -> {
+            saveBtn.setEnabled(true);
             JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 }
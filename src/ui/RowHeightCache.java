@@ -0,0 +1,168 @@
+package ui;
+
+import javax.swing.*;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.TableColumnModelEvent;
+import javax.swing.event.TableColumnModelListener;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import java.awt.*;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Sizes each row of a table to its tallest Dashboard.TextAreaRenderer cell, outside
+// of painting. Data changes mark their rows dirty, and a resized column or a new
+// font marks every row dirty. Dirty rows are measured in one pass queued on the EDT,
+// and only heights that changed are set, so a burst of events costs one layout.
+// Measured heights are cached by text and column width, so widening a column back,
+// or reloading unchanged data, needs no new measurement.
+final class RowHeightCache implements TableModelListener, TableColumnModelListener, PropertyChangeListener {
+    private static final int MAX_ENTRIES = 4096;
+
+    private record Key(String text, int width) {}
+
+    private final JTable table;
+    // Configured like TextAreaRenderer; never painted
+    private final JTextArea measurer = new JTextArea();
+    private final Map<Key, Integer> heights = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Integer> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final BitSet dirty = new BitSet();
+    private boolean allDirty = true;
+    private boolean scheduled;
+    private Font measuredFont;
+
+    private RowHeightCache(JTable table) {
+        this.table = table;
+        measurer.setLineWrap(true);
+        measurer.setWrapStyleWord(true);
+    }
+
+    // Call after the wrapping renderers are set on the table's columns
+    static RowHeightCache install(JTable table) {
+        RowHeightCache cache = new RowHeightCache(table);
+        table.getModel().addTableModelListener(cache);
+        table.getColumnModel().addColumnModelListener(cache);
+        table.addPropertyChangeListener("font", cache);
+        cache.schedule();
+        return cache;
+    }
+
+    @Override
+    public void tableChanged(TableModelEvent e) {
+        // JTable drops the heights of deleted rows itself
+        if (e.getType() == TableModelEvent.DELETE) return;
+        if (e.getFirstRow() == TableModelEvent.HEADER_ROW || e.getLastRow() == Integer.MAX_VALUE) {
+            allDirty = true;
+        } else {
+            dirty.set(e.getFirstRow(), e.getLastRow() + 1);
+        }
+        schedule();
+    }
+
+    // Fired for every step of a column drag; they collapse into one pass
+    @Override
+    public void columnMarginChanged(ChangeEvent e) {
+        invalidateAll();
+    }
+
+    @Override
+    public void columnAdded(TableColumnModelEvent e) {
+        invalidateAll();
+    }
+
+    @Override
+    public void columnRemoved(TableColumnModelEvent e) {
+        invalidateAll();
+    }
+
+    @Override
+    public void columnMoved(TableColumnModelEvent e) {
+    }
+
+    @Override
+    public void columnSelectionChanged(ListSelectionEvent e) {
+    }
+
+    @Override
+    public void propertyChange(PropertyChangeEvent evt) {
+        invalidateAll();
+    }
+
+    private void invalidateAll() {
+        allDirty = true;
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled) return;
+        scheduled = true;
+        SwingUtilities.invokeLater(this::apply);
+    }
+
+    private void apply() {
+        scheduled = false;
+        Font font = table.getFont();
+        if (!font.equals(measuredFont)) {
+            heights.clear();
+            measuredFont = font;
+            measurer.setFont(font);
+        }
+
+        int rowCount = table.getRowCount();
+        if (allDirty) {
+            for (int row = 0; row < rowCount; row++) {
+                applyRow(row);
+            }
+        } else {
+            for (int row = dirty.nextSetBit(0); row >= 0 && row < rowCount; row = dirty.nextSetBit(row + 1)) {
+                applyRow(row);
+            }
+        }
+        dirty.clear();
+        allDirty = false;
+    }
+
+    private void applyRow(int row) {
+        int height = 0;
+        for (int column = 0; column < table.getColumnCount(); column++) {
+            if (!(table.getColumnModel().getColumn(column).getCellRenderer() instanceof Dashboard.TextAreaRenderer)) {
+                continue;
+            }
+            Object value = table.getValueAt(row, column);
+            height = Math.max(height, measure(value == null ? "" : value.toString(),
+                    table.getColumnModel().getColumn(column).getWidth()));
+        }
+        // setRowHeight rejects 0; a table without wrapped columns keeps its default
+        if (height > 0 && table.getRowHeight(row) != height) {
+            table.setRowHeight(row, height);
+        }
+    }
+
+    private int measure(String text, int width) {
+        Key key = new Key(text, width);
+        Integer cached = heights.get(key);
+        if (cached != null) return cached;
+
+        int height;
+        Insets insets = measurer.getInsets();
+        FontMetrics metrics = measurer.getFontMetrics(measuredFont);
+        if (text.indexOf('\n') < 0 && metrics.stringWidth(text) <= width - insets.left - insets.right) {
+            // Fits on one line; skip the text layout
+            height = metrics.getHeight() + insets.top + insets.bottom;
+        } else {
+            measurer.setText(text);
+            measurer.setSize(width, Short.MAX_VALUE);
+            height = measurer.getPreferredSize().height;
+        }
+        heights.put(key, height);
+        return height;
+    }
+}
@@ -1,8 +1,13 @@
 package ui;
 
+import auth.LoginRateLimiter;
+import db.DBConnection;
+import db.QueryMetrics;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.Map;
 import java.util.Objects;
 
 public class Settings extends JFrame {
@@ -12,7 +17,7 @@ public class Settings extends JFrame {
     private JComboBox<String> fontFamilyCombo;
     private JSpinner fontSizeSpinner;
     private JCheckBox boldCheckBox, italicCheckBox;
-    private JButton applyBtn, resetBtn;
+    private JButton applyBtn, resetBtn, dbStatsBtn;
 
     private Dashboard dashboard;
 
@@ -125,8 +130,10 @@ public class Settings extends JFrame {
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 10));
         applyBtn = new JButton("Apply");
         resetBtn = new JButton("Reset");
+        dbStatsBtn = new JButton("DB Stats");
         buttonPanel.add(applyBtn);
         buttonPanel.add(resetBtn);
+        buttonPanel.add(dbStatsBtn);
 
         gbc.gridx = 0; gbc.gridy = y++;
         gbc.gridwidth = 2;
@@ -136,6 +143,7 @@ public class Settings extends JFrame {
         // Listeners for Apply and Reset
         applyBtn.addActionListener(e -> applySettings());
         resetBtn.addActionListener(e -> resetSettings());
+        dbStatsBtn.addActionListener(e -> showDatabaseStats());
 
         setVisible(true);
     }
@@ -193,6 +201,27 @@ public class Settings extends JFrame {
         italicCheckBox.setSelected(false);
     }
 
+    // Connection pool and per-query statistics collected since startup (or the last clear),
+    // sign-in throttling counts, and how long each dashboard tab took to load
+    private void showDatabaseStats() {
+        Map<String, Long> tabLoads = dashboard.getTabLoadTimes();
+        JTextArea text = new JTextArea("Pool: " + DBConnection.getPoolStats() + "\n"
+                + "Sign-ins: " + LoginRateLimiter.shared().getStats() + "\n"
+                + "Tab loads (ms): " + (tabLoads.isEmpty() ? "none yet" : tabLoads) + "\n\n"
+                + QueryMetrics.summary());
+        text.setEditable(false);
+        text.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JScrollPane scroll = new JScrollPane(text);
+        scroll.setPreferredSize(new Dimension(900, 400));
+
+        Object[] options = {"Close", "Clear Query Stats"};
+        int choice = JOptionPane.showOptionDialog(this, scroll, "Database Statistics",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[0]);
+        if (choice == 1) {
+            QueryMetrics.reset();
+        }
+    }
+
     private void setDarkTheme() {
         UIManager.put("Panel.background", new Color(45, 45, 45));
         UIManager.put("Label.foreground", Color.WHITE);
@@ -1,12 +1,13 @@
 package ui;
 
-import db.DBConnection;
-import org.mindrot.jbcrypt.BCrypt;
+import auth.LoginRateLimiter;
+import auth.PasswordHasher;
+import db.UserCredentials;
+import db.UserDao;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.sql.*;
 import java.util.Arrays;
 
 public class SignInForm extends JFrame {
@@ -15,6 +16,12 @@ public class SignInForm extends JFrame {
     private JPasswordField passwordField;
     private JButton signInButton, registerButton;
 
+    private static final String CLIENT_ID = LoginRateLimiter.localClientId();
+    private static final UserDao USERS = new UserDao();
+
+    private record SignedInUser(int id, String name, String email, String profilePicture,
+                                String storedHash, boolean needsRehash) {}
+
     public SignInForm() {
         setTitle("Sign In");
         setSize(400, 300);
@@ -112,39 +119,66 @@ public class SignInForm extends JFrame {
             return;
         }
 
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT id, name, email, profile_picture, password FROM users WHERE username = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                String storedHash = rs.getString("password");
-
-                // SAFEGUARD: Avoid exception if stored hash is plain text or corrupted
-                if (storedHash != null && storedHash.startsWith("$2") && BCrypt.checkpw(password, storedHash)) {
-                    int userId = rs.getInt("id");
-                    String name = rs.getString("name");
-                    String email = rs.getString("email");
-                    String profilePic = rs.getString("profile_picture");
-
-                    JOptionPane.showMessageDialog(this, "Welcome, " + name + "!",
-                            "Success", JOptionPane.INFORMATION_MESSAGE);
-
-                    dispose();
-                    new Dashboard(userId, name, email, profilePic).setVisible(true);
-                } else {
-                    showError("Invalid username or password.");
-                }
-            } else {
+        Arrays.fill(passwordChars, '\0'); // Clear password from memory
+
+        // Reject bursts before paying for a DB round trip and a BCrypt verify
+        LoginRateLimiter limiter = LoginRateLimiter.shared();
+        if (!limiter.tryAcquire(username, CLIENT_ID)) {
+            JOptionPane.showMessageDialog(this, "Too many sign-in attempts. Please wait a moment and try again.",
+                    "Login Failed", JOptionPane.ERROR_MESSAGE);
+            passwordField.setText("");
+            return;
+        }
+
+        setControlsEnabled(false);
+
+        DbExecutor.submit(this, () -> {
+            UserCredentials credentials = USERS.findCredentials(username).orElse(null);
+            if (credentials == null) {
+                return null;
+            }
+            String storedHash = credentials.passwordHash();
+
+            // Verified on the hasher pool; the connection is already back in the pool
+            if (!PasswordHasher.verify(password, storedHash)) {
+                return null;
+            }
+            return new SignedInUser(credentials.id(), credentials.name(), credentials.email(),
+                    credentials.profilePicture(), storedHash, PasswordHasher.needsRehash(storedHash));
+        }, user -> {
+            setControlsEnabled(true);
+            if (user == null) {
+                limiter.recordFailure(username);
                 showError("Invalid username or password.");
+                return;
             }
-        } catch (SQLException e) {
+            limiter.recordSuccess(username);
+            if (user.needsRehash()) rehash(user.id(), password, user.storedHash());
+            JOptionPane.showMessageDialog(this, "Welcome, " + user.name() + "!",
+                    "Success", JOptionPane.INFORMATION_MESSAGE);
+
+            dispose();
+            new Dashboard(user.id(), user.name(), user.email(), user.profilePicture()).setVisible(true);
+        }, e -> {
+            setControlsEnabled(true);
             JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage(),
                     "Error", JOptionPane.ERROR_MESSAGE);
-        } finally {
-            Arrays.fill(passwordChars, '\0'); // Clear password from memory
-        }
+        });
+    }
+
+    // Upgrades the stored hash to the calibrated work factor in the background, after the
+    // user is already in. A failure is dropped on purpose: the old hash still verifies,
+    // and the next sign-in simply tries again.
+    private static void rehash(int userId, String password, String oldHash) {
+        DbExecutor.submitWrite(null, () -> USERS.updatePasswordHash(userId, PasswordHasher.hash(password), oldHash),
+                upgraded -> {}, ex -> {});
+    }
+
+    private void setControlsEnabled(boolean enabled) {
+        signInButton.setEnabled(enabled);
+        registerButton.setEnabled(enabled);
+        usernameField.setEnabled(enabled);
+        passwordField.setEnabled(enabled);
     }
 
     private void showError(String msg) {
@@ -1,37 +1,42 @@
 package ui;
 
-import db.DBConnection;
+import db.UserCsvImporter;
+import db.UserDao;
+import db.UserFilter;
+import db.UserSummary;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableCellEditor;
 import java.awt.*;
 import java.awt.event.*;
-import java.sql.*;
+import java.nio.file.Path;
+import java.util.function.Consumer;
 
 public class UserListView extends JFrame {
+    // Delay after the last keystroke before a search query is sent
+    private static final int SEARCH_DEBOUNCE_MS = 300;
+
     public JTable userTable;
-    private DefaultTableModel tableModel;
+    private PagedUserTableModel tableModel;
+    private final UserDao users = new UserDao();
+
+    private JTextField nameSearchField, emailSearchField, usernameSearchField, citySearchField;
+    private JComboBox<String> genderFilterCombo;
+    private JLabel statusLabel;
+    private JButton importButton;
+    private Timer searchTimer;
 
     public UserListView() {
         setTitle("Registered Users");
-        setSize(900, 400);
+        setSize(1000, 450);
         setLocationRelativeTo(null);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
         // Define the table model and columns
-        tableModel = new DefaultTableModel();
-        tableModel.addColumn("ID");
-        tableModel.addColumn("Name");
-        tableModel.addColumn("Email");
-        tableModel.addColumn("Username");
-        tableModel.addColumn("City");
-        tableModel.addColumn("Gender");
-        tableModel.addColumn("Phone");
-        tableModel.addColumn("Address");
-        tableModel.addColumn("Edit");
-        tableModel.addColumn("Delete");
+        tableModel = new PagedUserTableModel(this);
 
         userTable = new JTable(tableModel);
 
@@ -44,89 +49,164 @@ public class UserListView extends JFrame {
         userTable.getColumn("Delete").setCellEditor(new ButtonEditor(new JCheckBox(), "Delete", this));
 
         JScrollPane scrollPane = new JScrollPane(userTable);
-        add(scrollPane);
+        add(scrollPane, BorderLayout.CENTER);
+
+        add(createSearchPanel(), BorderLayout.NORTH);
+
+        statusLabel = new JLabel(" ");
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(4, 8, 4, 8));
+        add(statusLabel, BorderLayout.SOUTH);
+        tableModel.addTableModelListener(e -> updateStatus());
 
         loadUsers();
 
         setVisible(true);
     }
 
-    // Load user data from database into table
-    private void loadUsers() {
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT * FROM users";
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(sql);
-
-            while (rs.next()) {
-                Object[] row = new Object[10];
-                row[0] = rs.getInt("id");
-                row[1] = rs.getString("name");
-                row[2] = rs.getString("email");
-                row[3] = rs.getString("username");
-                row[4] = rs.getString("city");
-                row[5] = rs.getString("gender");
-                row[6] = rs.getString("phone");
-                row[7] = rs.getString("address");
-                row[8] = "Edit";   // Text for Edit button
-                row[9] = "Delete"; // Text for Delete button
-
-                tableModel.addRow(row);
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage());
+    private JPanel createSearchPanel() {
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 6));
+
+        nameSearchField = addSearchField(searchPanel, "Name:");
+        emailSearchField = addSearchField(searchPanel, "Email:");
+        usernameSearchField = addSearchField(searchPanel, "Username:");
+        citySearchField = addSearchField(searchPanel, "City:");
+
+        searchPanel.add(new JLabel("Gender:"));
+        genderFilterCombo = new JComboBox<>(new String[]{"Any", "Male", "Female", "Other"});
+        genderFilterCombo.addActionListener(e -> applySearch());
+        searchPanel.add(genderFilterCombo);
+
+        JButton clearButton = new JButton("Clear");
+        clearButton.addActionListener(e -> {
+            nameSearchField.setText("");
+            emailSearchField.setText("");
+            usernameSearchField.setText("");
+            citySearchField.setText("");
+            genderFilterCombo.setSelectedIndex(0);
+            applySearch();
+        });
+        searchPanel.add(clearButton);
+
+        importButton = new JButton("Import CSV...");
+        importButton.addActionListener(e -> importUsers());
+        searchPanel.add(importButton);
+
+        // Restarted on every keystroke so only the final text is queried
+        searchTimer = new Timer(SEARCH_DEBOUNCE_MS, e -> applySearch());
+        searchTimer.setRepeats(false);
+        return searchPanel;
+    }
+
+    private JTextField addSearchField(JPanel panel, String label) {
+        panel.add(new JLabel(label));
+        JTextField field = new JTextField(9);
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { searchTimer.restart(); }
+            @Override public void removeUpdate(DocumentEvent e) { searchTimer.restart(); }
+            @Override public void changedUpdate(DocumentEvent e) { searchTimer.restart(); }
+        });
+        panel.add(field);
+        return field;
+    }
+
+    private void applySearch() {
+        searchTimer.stop();
+        String gender = (String) genderFilterCombo.getSelectedItem();
+        tableModel.setFilter(new UserFilter(
+                nameSearchField.getText(),
+                emailSearchField.getText(),
+                usernameSearchField.getText(),
+                citySearchField.getText(),
+                "Any".equals(gender) ? null : gender));
+    }
+
+    // Bulk-imports users from a CSV file with a header row (name,email,username,password,...)
+    private void importUsers() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Users from CSV");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path csv = chooser.getSelectedFile().toPath();
+
+        importButton.setEnabled(false);
+        statusLabel.setText("Importing " + csv.getFileName() + "...");
+        DbExecutor.submitWrite(this, () -> new UserCsvImporter().importFile(csv, rows ->
+                SwingUtilities.invokeLater(() -> statusLabel.setText("Importing... " + rows + " rows processed"))
+        ), report -> {
+            importButton.setEnabled(true);
+            tableModel.reload();
+            showImportReport(report);
+        }, ex -> {
+            importButton.setEnabled(true);
+            updateStatus();
+            JOptionPane.showMessageDialog(this, "Import failed: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    private void showImportReport(UserCsvImporter.ImportReport report) {
+        String summary = "Imported " + report.imported() + " of " + report.rowsRead() + " rows.";
+        if (report.errors().isEmpty()) {
+            JOptionPane.showMessageDialog(this, summary, "Import Complete", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        StringBuilder details = new StringBuilder();
+        for (UserCsvImporter.RowError error : report.errors()) {
+            details.append(error).append('\n');
         }
+        JTextArea errorArea = new JTextArea(details.toString(), 12, 50);
+        errorArea.setEditable(false);
+        JPanel panel = new JPanel(new BorderLayout(0, 8));
+        panel.add(new JLabel(summary + " " + report.errors().size() + " rows were rejected:"), BorderLayout.NORTH);
+        panel.add(new JScrollPane(errorArea), BorderLayout.CENTER);
+        JOptionPane.showMessageDialog(this, panel, "Import Complete", JOptionPane.WARNING_MESSAGE);
     }
 
-    // Update user in DB and table model
-    public void updateUser(int userId, String name, String email, String username, String city, String gender, String phone, String address, int rowIndex) {
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "UPDATE users SET name=?, email=?, username=?, city=?, gender=?, phone=?, address=? WHERE id=?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, name);
-            stmt.setString(2, email);
-            stmt.setString(3, username);
-            stmt.setString(4, city);
-            stmt.setString(5, gender);
-            stmt.setString(6, phone);
-            stmt.setString(7, address);
-            stmt.setInt(8, userId);
-            int rowsUpdated = stmt.executeUpdate();
-
-            if (rowsUpdated > 0) {
-                tableModel.setValueAt(name, rowIndex, 1);
-                tableModel.setValueAt(email, rowIndex, 2);
-                tableModel.setValueAt(username, rowIndex, 3);
-                tableModel.setValueAt(city, rowIndex, 4);
-                tableModel.setValueAt(gender, rowIndex, 5);
-                tableModel.setValueAt(phone, rowIndex, 6);
-                tableModel.setValueAt(address, rowIndex, 7);
+    private void updateStatus() {
+        int rows = tableModel.getRowCount();
+        if (tableModel.isResultCapped()) {
+            statusLabel.setText("Showing the first " + rows + " matches - refine your search to narrow it down.");
+        } else if (tableModel.getFilter().isEmpty()) {
+            statusLabel.setText(rows + " registered users");
+        } else {
+            statusLabel.setText(rows + " matching users");
+        }
+    }
+
+    // Load user data from database into table; rows are paged in as they scroll into view
+    private void loadUsers() {
+        tableModel.reload();
+    }
+
+    // Update user in DB and table model; onDone receives the outcome on the EDT
+    public void updateUser(int userId, String name, String email, String username, String city, String gender,
+                           String phone, String address, int rowIndex, Consumer<Boolean> onDone) {
+        UserSummary user = new UserSummary(userId, name, email, username, city, gender, phone, address);
+        DbExecutor.submitWrite(this, () -> users.update(user), updated -> {
+            if (updated) {
+                tableModel.updateRow(rowIndex, user);
                 JOptionPane.showMessageDialog(this, "User updated successfully.");
             } else {
                 JOptionPane.showMessageDialog(this, "User not found or update failed.");
             }
-        } catch (SQLException e) {
+            if (onDone != null) onDone.accept(updated);
+        }, e -> {
             JOptionPane.showMessageDialog(this, "Update failed: " + e.getMessage());
-        }
+            if (onDone != null) onDone.accept(false);
+        });
     }
 
     // Delete user from DB and remove row from table model
     public void deleteUser(int userId, int rowIndex) {
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "DELETE FROM users WHERE id=?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, userId);
-            int rowsDeleted = stmt.executeUpdate();
-
-            if (rowsDeleted > 0) {
-                tableModel.removeRow(rowIndex);
+        DbExecutor.submitWrite(this, () -> users.delete(userId), deleted -> {
+            if (deleted) {
+                // Rows after the deleted one shift up, so cached pages are stale
+                tableModel.reload();
                 JOptionPane.showMessageDialog(this, "User deleted successfully.");
             } else {
                 JOptionPane.showMessageDialog(this, "User not found or delete failed.");
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Delete failed: " + e.getMessage());
-        }
+        }, e -> JOptionPane.showMessageDialog(this, "Delete failed: " + e.getMessage()));
     }
 
     // Main method for testing independently
@@ -183,7 +263,13 @@ class ButtonEditor extends DefaultCellEditor {
     public Object getCellEditorValue() {
         if (isPushed) {
             JTable table = parent.userTable;
-            int userId = (int) table.getValueAt(selectedRow, 0);
+            Object idValue = table.getValueAt(selectedRow, 0);
+            if (idValue == null) {
+                // Row's page hasn't arrived yet
+                isPushed = false;
+                return label;
+            }
+            int userId = (int) idValue;
 
             if ("Edit".equals(action)) {
                 // Fetch current data
@@ -0,0 +1,176 @@
+package analytics;
+
+import db.RoutineEntry;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Checks RoutineStats' incremental bookkeeping against a full recompute: random adds,
+// replacements, edits and removals, with the date moving on now and then, and after
+// every step each figure must equal the one counted from scratch. Plain main, no test
+// framework; exits 1 on the first mismatch.
+//
+//   javac -d out -cp out test/analytics/RoutineStatsTest.java
+//   java -cp out analytics.RoutineStatsTest [steps] [seed]
+public class RoutineStatsTest {
+    private static final int ACTIVITIES = RoutineEntry.ACTIVITIES;
+    // Entries fall in the last HISTORY_DAYS days, so every window sees changes
+    private static final int HISTORY_DAYS = 120;
+    private static final double TOLERANCE = 1e-3;
+
+    private final Random random;
+    private final RoutineStats stats = new RoutineStats();
+    private final Map<Integer, RoutineEntry> model = new HashMap<>();
+    private LocalDate today = LocalDate.of(2025, 3, 1);
+    private int nextId = 1;
+
+    private RoutineStatsTest(long seed) {
+        random = new Random(seed);
+    }
+
+    public static void main(String[] args) {
+        int steps = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+        try {
+            new RoutineStatsTest(seed).run(steps);
+        } catch (AssertionError e) {
+            System.out.println("FAILED (seed " + seed + "): " + e.getMessage());
+            System.exit(1);
+        }
+        System.out.println("RoutineStats matched a full recompute over " + steps + " steps");
+    }
+
+    private void run(int steps) {
+        // Starts from a loaded history, as RoutineCache does
+        List<RoutineEntry> history = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            RoutineEntry entry = randomEntry(nextId++);
+            if (model.values().stream().noneMatch(e -> e.date().equals(entry.date()))) {
+                model.put(entry.id(), entry);
+                history.add(entry);
+            }
+        }
+        stats.load(history);
+        check("load");
+
+        for (int step = 1; step <= steps; step++) {
+            int op = random.nextInt(10);
+            String action;
+            if (op < 4 || model.isEmpty()) {
+                action = "put new";
+                put(randomEntry(nextId++));
+            } else if (op < 5) {
+                action = "put replacing an id";
+                put(randomEntry(randomId()));
+            } else if (op < 8) {
+                action = "update";
+                update(randomId());
+            } else if (op < 9) {
+                action = "remove";
+                int id = randomId();
+                stats.remove(id);
+                model.remove(id);
+            } else {
+                action = "date moved on";
+                today = today.plusDays(1 + random.nextInt(3));
+            }
+            // Not every step reads the summary, so changes also pile up between reads
+            if (random.nextInt(3) > 0) check("step " + step + " (" + action + ")");
+        }
+        check("end");
+    }
+
+    private void put(RoutineEntry entry) {
+        stats.put(entry);
+        model.remove(entry.id());
+        model.values().removeIf(e -> e.date().equals(entry.date()));
+        model.put(entry.id(), entry);
+    }
+
+    private void update(int id) {
+        RoutineEntry old = model.get(id);
+        float[] hours = randomHours();
+        stats.update(id, hours);
+        model.put(id, new RoutineEntry(id, 1, old.date(), hours[0], hours[1], hours[2], hours[3], hours[4],
+                hours[5], old.remarks()));
+    }
+
+    private int randomId() {
+        List<Integer> ids = new ArrayList<>(model.keySet());
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private RoutineEntry randomEntry(int id) {
+        float[] hours = randomHours();
+        return new RoutineEntry(id, 1, today.minusDays(random.nextInt(HISTORY_DAYS)), hours[0], hours[1],
+                hours[2], hours[3], hours[4], hours[5], null);
+    }
+
+    // Zero often enough that streaks both form and break
+    private float[] randomHours() {
+        float[] hours = new float[ACTIVITIES];
+        for (int a = 0; a < ACTIVITIES; a++) {
+            hours[a] = random.nextInt(5) < 2 ? 0 : (random.nextInt(16) + 1) * 0.25f;
+        }
+        return hours;
+    }
+
+    private void check(String when) {
+        RoutineSummary summary = stats.summary(today);
+        Map<LocalDate, RoutineEntry> byDate = new HashMap<>();
+        for (RoutineEntry entry : model.values()) {
+            byDate.put(entry.date(), entry);
+        }
+
+        same(when, "entries", summary.entries(), model.size());
+        for (int a = 0; a < ACTIVITIES; a++) {
+            for (int w = 0; w < RoutineSummary.AVERAGE_WINDOWS.length; w++) {
+                int length = RoutineSummary.AVERAGE_WINDOWS[w];
+                same(when, length + "-day average of " + a, summary.average(w, a),
+                        sum(byDate, a, today, length) / length);
+            }
+            double week = sum(byDate, a, today, 7);
+            same(when, "week total of " + a, summary.weekTotal(a), week);
+            same(when, "week over week of " + a, summary.weekOverWeek(a),
+                    week - sum(byDate, a, today.minusDays(7), 7));
+
+            LocalDate end = hours(byDate, today, a) > 0 ? today : today.minusDays(1);
+            int current = 0;
+            while (hours(byDate, end.minusDays(current), a) > 0) current++;
+            same(when, "current streak of " + a, summary.currentStreak(a), current);
+
+            int longest = 0;
+            for (LocalDate date : byDate.keySet()) {
+                if (hours(byDate, date, a) <= 0 || hours(byDate, date.minusDays(1), a) > 0) continue;
+                int run = 0;
+                while (hours(byDate, date.plusDays(run), a) > 0) run++;
+                longest = Math.max(longest, run);
+            }
+            same(when, "longest streak of " + a, summary.longestStreak(a), longest);
+        }
+    }
+
+    // Hours for activity over the length days ending at end
+    private static double sum(Map<LocalDate, RoutineEntry> byDate, int activity, LocalDate end, int length) {
+        double total = 0;
+        for (int d = 0; d < length; d++) {
+            total += hours(byDate, end.minusDays(d), activity);
+        }
+        return total;
+    }
+
+    private static float hours(Map<LocalDate, RoutineEntry> byDate, LocalDate date, int activity) {
+        RoutineEntry entry = byDate.get(date);
+        return entry == null ? 0 : entry.hours(activity);
+    }
+
+    private static void same(String when, String figure, double actual, double expected) {
+        if (Math.abs(actual - expected) > TOLERANCE) {
+            throw new AssertionError(when + ": " + figure + " is " + actual + ", recomputed " + expected);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Checks that each hot query, as its DAO prepares it, is planned on the index the
+// migrations add for it. Optimizers ignore indexes on near-empty tables, so the
+// database (embedded H2 unless -Dportal.db.backend says otherwise) is first seeded
+// with the synthetic data generator. Plain main, no test framework; exits 1 if any
+// plan misses its index.
+//
+//   javac -d test-out -cp out test/db/SchemaMigratorPlanTest.java
+//   java -cp test-out:out:h2.jar db.SchemaMigratorPlanTest [students]
+public class SchemaMigratorPlanTest {
+    // A hot query and the index its plan is expected to use
+    private record PlanCheck(String sql, String expectedIndex, Object... params) {}
+
+    private static final List<PlanCheck> PLAN_CHECKS = List.of(
+            new PlanCheck(AssignmentDao.SELECT_BY_USER, "idx_assignments_user_deadline", 1),
+            new PlanCheck(RoutineDao.SELECT_BY_USER, "user_date_unique", 1),
+            new PlanCheck(RoutineDao.SELECT_DAILY_TOTALS, "user_date_unique", 1,
+                    Date.valueOf("2025-01-01"), Date.valueOf("2025-12-31")),
+            new PlanCheck(LibraryDao.SELECT_ALL, "idx_library_title"),
+            new PlanCheck(UserDao.countSql(new UserFilter("a", null, null, null, null)), "idx_users_name", "a%", 1000)
+    );
+
+    public static void main(String[] args) throws SQLException, InterruptedException {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        // Must be set before DBConnection loads
+        if (System.getProperty("portal.db.backend") == null) {
+            System.setProperty("portal.db.backend", DatabaseConfig.H2);
+        }
+        if (System.getProperty("portal.db.slowQueryMillis") == null) {
+            System.setProperty("portal.db.slowQueryMillis", "60000");
+        }
+
+        // The first connection bootstraps the schema and applies the migrations
+        try (Connection conn = DBConnection.getConnection()) {
+            System.out.println("Schema version " + SchemaMigrator.currentVersion(conn) + " of "
+                    + SchemaMigrator.latestVersion() + " on " + DBConnection.getConfig());
+        }
+        SyntheticDataGenerator.Options defaults = SyntheticDataGenerator.Options.defaults(0, students);
+        SyntheticDataGenerator.generate(new SyntheticDataGenerator.Options(defaults.seed(), 0, students, 30,
+                LocalDate.of(2025, 6, 30), defaults.books(), defaults.notices(), defaults.threads(),
+                defaults.batchSize()));
+
+        List<String> problems = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection()) {
+            analyze(conn);
+            for (PlanCheck check : PLAN_CHECKS) {
+                String plan = explain(conn, check.sql(), check.params());
+                if (!plan.toLowerCase(Locale.ROOT).contains(check.expectedIndex())) {
+                    problems.add(check.expectedIndex() + " not used by: " + check.sql() + "\n    plan: " + plan);
+                }
+            }
+        }
+        problems.forEach(System.out::println);
+        if (!problems.isEmpty()) System.exit(1);
+        System.out.println("All " + PLAN_CHECKS.size() + " hot queries use their index with "
+                + students + " students");
+    }
+
+    // Refreshes the statistics the optimizer chooses indexes by after the bulk load
+    private static void analyze(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            if (DBConnection.getConfig().isEmbedded()) {
+                stmt.execute("ANALYZE");
+            } else {
+                stmt.execute("ANALYZE TABLE assignments, routine_tracker, library, users");
+            }
+        }
+    }
+
+    // Flattens every column of every EXPLAIN row; MySQL reports the index in "key",
+    // H2 inside the plan text, so matching on the whole text works for both
+    private static String explain(Connection conn, String sql, Object... params) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                while (rs.next()) {
+                    for (int c = 1; c <= meta.getColumnCount(); c++) {
+                        plan.append(meta.getColumnLabel(c)).append('=').append(rs.getString(c)).append(' ');
+                    }
+                }
+            }
+        }
+        return plan.toString().replaceAll("\\s+", " ").trim();
+    }
+}